@@ -0,0 +1,60 @@
+package com.trackmint.app.config;
+
+import com.trackmint.app.security.AuthenticatedUser;
+import com.trackmint.app.service.UserDataVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import java.time.LocalDate;
+
+// Conditional GET for the user's data. The ETag is the user's data version plus today's
+// date, since the current week and month move the summaries without any write. A matching
+// If-None-Match is answered with 304 after one primary-key lookup, before the controller
+// runs any query or serializes anything. Responses are marked private and must be
+// revalidated, so browsers keep them and always ask.
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+    private final UserDataVersionService dataVersions;
+
+    public ConditionalGetConfig(UserDataVersionService dataVersions) {
+        this.dataVersions = dataVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request,
+                                             HttpServletResponse response,
+                                             Object handler) {
+                        if (!"GET".equals(request.getMethod())) {
+                            return true;
+                        }
+                        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                        if (authentication == null
+                                || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+                            return true;
+                        }
+                        String etag = "W/\"" + user.getId() + "-" + dataVersions.current(user.getId())
+                                + "-" + LocalDate.now() + "\"";
+                        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                                CacheControl.noCache().cachePrivate().getHeaderValue());
+                        return !new ServletWebRequest(request, response).checkNotModified(etag);
+                    }
+                })
+                // Not notifications: each one carries a timeAgo that moves with the clock
+                .addPathPatterns("/api/dashboard/**", "/api/transactions/**", "/api/budgets/**",
+                        "/api/categories/**")
+                // Import progress moves without a data write; exports are downloads
+                .excludePathPatterns("/api/transactions/import/**", "/api/transactions/export");
+    }
+}
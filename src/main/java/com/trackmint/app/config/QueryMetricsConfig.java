@@ -0,0 +1,64 @@
+package com.trackmint.app.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+// Records how many SQL statements each endpoint runs, as the "trackmint.db.statements"
+// distribution summary tagged by method and URI pattern (see /actuator/metrics).
+@Configuration
+public class QueryMetricsConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetricsConfig.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> statementCountFilter(MeterRegistry meterRegistry) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request,
+                                            HttpServletResponse response,
+                                            FilterChain filterChain)
+                    throws ServletException, IOException {
+                StatementCounter.reset();
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    if (pattern != null) {
+                        long statements = StatementCounter.current();
+                        DistributionSummary.builder("trackmint.db.statements")
+                                .description("SQL statements executed per request")
+                                .tag("method", request.getMethod())
+                                .tag("uri", pattern.toString())
+                                .register(meterRegistry)
+                                .record(statements);
+                        log.debug("{} {} ran {} statements", request.getMethod(), pattern, statements);
+                    }
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        // Run outside the security chain so statements issued during authentication are counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -1,6 +1,12 @@
 package com.trackmint.app.config;
 
+import com.trackmint.app.security.BoundedPasswordEncoder;
 import com.trackmint.app.security.JwtFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +20,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import java.time.Duration;
 import java.util.Arrays;
 
 @Configuration
@@ -33,6 +40,9 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses finish on an async dispatch that carries no token;
+                        // the request that started them was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
@@ -86,8 +96,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${app.security.bcrypt-strength:10}") int strength,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-size:16}") int queueSize,
+            @Value("${app.security.password-hashing.queue-timeout:5s}") Duration queueTimeout) {
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength), threads, queueSize, queueTimeout);
+        Gauge.builder("trackmint.auth.hashing.active", encoder, BoundedPasswordEncoder::active)
+                .register(meterRegistry);
+        Gauge.builder("trackmint.auth.hashing.queued", encoder, BoundedPasswordEncoder::queued)
+                .register(meterRegistry);
+        FunctionCounter.builder("trackmint.auth.hashing.rejected", encoder, BoundedPasswordEncoder::rejected)
+                .description("Password hashes refused before starting, the hashing pool being saturated")
+                .register(meterRegistry);
+        return encoder;
     }
 
     @Bean
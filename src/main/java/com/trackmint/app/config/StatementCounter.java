@@ -0,0 +1,41 @@
+package com.trackmint.app.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counts SQL statements prepared by Hibernate on the current thread, and on any task the
+// thread hands off through propagate.
+// Registered as the session factory's statement inspector by QueryMetricsConfig.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get().incrementAndGet();
+        return sql;
+    }
+
+    // A fresh counter, so tasks still running for an earlier request cannot add to this one
+    public static void reset() {
+        COUNT.set(new AtomicLong());
+    }
+
+    public static long current() {
+        return COUNT.get().get();
+    }
+
+    // Wraps a task for another thread so its statements count toward the calling thread's total
+    public static Runnable propagate(Runnable task) {
+        AtomicLong counter = COUNT.get();
+        return () -> {
+            AtomicLong previous = COUNT.get();
+            COUNT.set(counter);
+            try {
+                task.run();
+            } finally {
+                COUNT.set(previous);
+            }
+        };
+    }
+}
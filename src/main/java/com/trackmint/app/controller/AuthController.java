@@ -24,15 +24,17 @@ public class AuthController {
     @PostMapping("/register")
     @Operation(summary = "Register a new user")
     public ResponseEntity<AuthResponseDTO> register(
+            HttpServletRequest request,
             @Valid @RequestBody RegisterRequestDTO dto) {
-        return ResponseEntity.ok(authService.register(dto));
+        return ResponseEntity.ok(authService.register(dto, request.getRemoteAddr()));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Login ")
     public ResponseEntity<AuthResponseDTO> login(
+            HttpServletRequest request,
             @Valid @RequestBody LoginRequestDTO dto) {
-        return ResponseEntity.ok(authService.login(dto));
+        return ResponseEntity.ok(authService.login(dto, request.getRemoteAddr()));
     }
 
 
@@ -4,14 +4,15 @@ import com.trackmint.app.dto.BudgetRequestDTO;
 import com.trackmint.app.dto.BudgetResponseDTO;
 import com.trackmint.app.dto.BudgetSummaryDTO;
 import com.trackmint.app.dto.BudgetAlertDTO;
+import com.trackmint.app.security.AuthenticatedUser;
 import com.trackmint.app.service.BudgetService;
+import com.trackmint.app.service.SummaryCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
@@ -22,86 +23,89 @@ import java.util.Map;
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final SummaryCache summaryCache;
 
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, SummaryCache summaryCache) {
         this.budgetService = budgetService;
+        this.summaryCache = summaryCache;
     }
 
     @GetMapping
     @Operation(summary = "Get all budgets")
     public ResponseEntity<List<BudgetResponseDTO>> getAllBudgets(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(budgetService.getUserBudgets(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(budgetService.getUserBudgets(user.getId()));
     }
 
     @GetMapping("/month/{month}/{year}")
     @Operation(summary = "Get budgets by month and year")
     public ResponseEntity<List<BudgetResponseDTO>> getBudgetsByMonth(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Integer month,
             @PathVariable Integer year) {
-        return ResponseEntity.ok(budgetService.getBudgetsByMonth(userDetails.getUsername(), month, year));
+        return ResponseEntity.ok(budgetService.getBudgetsByMonth(user.getId(), month, year));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get budget by ID")
     public ResponseEntity<BudgetResponseDTO> getBudgetById(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(budgetService.getBudgetById(userDetails.getUsername(), id));
+        return ResponseEntity.ok(budgetService.getBudgetById(user.getId(), id));
     }
 
     @PostMapping
     @Operation(summary = "Create a new budget")
     public ResponseEntity<BudgetResponseDTO> createBudget(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody BudgetRequestDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(budgetService.createBudget(userDetails.getUsername(), dto));
+                .body(budgetService.createBudget(user.getId(), dto));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a budget")
     public ResponseEntity<BudgetResponseDTO> updateBudget(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id,
             @Valid @RequestBody BudgetRequestDTO dto) {
-        return ResponseEntity.ok(budgetService.updateBudget(userDetails.getUsername(), id, dto));
+        return ResponseEntity.ok(budgetService.updateBudget(user.getId(), id, dto));
     }
 
     @PatchMapping("/{id}/spent")
     @Operation(summary = "Update spent amount")
     public ResponseEntity<BudgetResponseDTO> updateSpent(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id,
             @RequestBody Map<String, Double> request) {
         Double spent = request.get("spent");
         if (spent == null) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(budgetService.updateSpent(userDetails.getUsername(), id, spent));
+        return ResponseEntity.ok(budgetService.updateSpent(user.getId(), id, spent));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a budget")
     public ResponseEntity<Void> deleteBudget(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        budgetService.deleteBudget(userDetails.getUsername(), id);
+        budgetService.deleteBudget(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/summary")
     @Operation(summary = "Get budget summary")
     public ResponseEntity<BudgetSummaryDTO> getBudgetSummary(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(budgetService.getBudgetSummary(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(summaryCache.get(user.getId(), SummaryCache.Summary.BUDGETS,
+                () -> budgetService.getBudgetSummary(user.getId())));
     }
 
     @GetMapping("/alerts")
     @Operation(summary = "Get budget alerts")
     public ResponseEntity<List<BudgetAlertDTO>> getBudgetAlerts(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(budgetService.getBudgetAlerts(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(budgetService.getBudgetAlerts(user.getId()));
     }
 }
\ No newline at end of file
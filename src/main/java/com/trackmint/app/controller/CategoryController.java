@@ -3,14 +3,15 @@ package com.trackmint.app.controller;
 import com.trackmint.app.dto.CategoryRequestDTO;
 import com.trackmint.app.dto.CategoryResponseDTO;
 import com.trackmint.app.dto.CategorySummaryDTO;
+import com.trackmint.app.security.AuthenticatedUser;
 import com.trackmint.app.service.CategoryService;
+import com.trackmint.app.service.SummaryCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -20,67 +21,70 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final SummaryCache summaryCache;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, SummaryCache summaryCache) {
         this.categoryService = categoryService;
+        this.summaryCache = summaryCache;
     }
 
     @GetMapping
     @Operation(summary = "Get all categories for current user")
     public ResponseEntity<List<CategoryResponseDTO>> getAllCategories(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(categoryService.getUserCategories(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(categoryService.getUserCategories(user.getId()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID")
     public ResponseEntity<CategoryResponseDTO> getCategoryById(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(userDetails.getUsername(), id));
+        return ResponseEntity.ok(categoryService.getCategoryById(user.getId(), id));
     }
 
     @GetMapping("/{id}/details")
     @Operation(summary = "Get category with transaction details")
     public ResponseEntity<CategoryResponseDTO> getCategoryWithDetails(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(userDetails.getUsername(), id));
+        return ResponseEntity.ok(categoryService.getCategoryById(user.getId(), id));
     }
 
     @PostMapping
     @Operation(summary = "Create a new category")
     public ResponseEntity<CategoryResponseDTO>CreateCategory(
 
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody CategoryRequestDTO categoryRequestDTO
 
     ){
-     return ResponseEntity.ok(categoryService.createCategory(userDetails.getUsername(),categoryRequestDTO))  ;
+     return ResponseEntity.ok(categoryService.createCategory(user.getId(),categoryRequestDTO))  ;
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a category")
     public ResponseEntity<CategoryResponseDTO> updateCategory(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id,
             @Valid @RequestBody CategoryRequestDTO dto) {
-        return ResponseEntity.ok(categoryService.updateCategory(userDetails.getUsername(), id, dto));
+        return ResponseEntity.ok(categoryService.updateCategory(user.getId(), id, dto));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a category")
     public ResponseEntity<Void> deleteCategory(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        categoryService.deleteCategory(userDetails.getUsername(), id);
+        categoryService.deleteCategory(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/summary")
     @Operation(summary = "Get category summary")
     public ResponseEntity<CategorySummaryDTO> getCategorySummary(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(categoryService.getCategorySummary(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(summaryCache.get(user.getId(), SummaryCache.Summary.CATEGORIES,
+                () -> categoryService.getCategorySummary(user.getId())));
     }
 }
\ No newline at end of file
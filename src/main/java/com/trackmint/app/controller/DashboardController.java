@@ -1,12 +1,13 @@
 package com.trackmint.app.controller;
 
 import com.trackmint.app.dto.DashboardSummaryDTO;
+import com.trackmint.app.security.AuthenticatedUser;
 import com.trackmint.app.service.DashboardService;
+import com.trackmint.app.service.SummaryCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,15 +16,18 @@ import org.springframework.web.bind.annotation.*;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final SummaryCache summaryCache;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(DashboardService dashboardService, SummaryCache summaryCache) {
         this.dashboardService = dashboardService;
+        this.summaryCache = summaryCache;
     }
 
     @GetMapping("/summary")
     @Operation(summary = "Get dashboard summary")
     public ResponseEntity<DashboardSummaryDTO> getDashboardSummary(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(dashboardService.getDashboardSummary(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(summaryCache.get(user.getId(), SummaryCache.Summary.DASHBOARD,
+                () -> dashboardService.getDashboardSummary(user.getId())));
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.trackmint.app.controller;
+
+import com.trackmint.app.security.AuthenticatedUser;
+import com.trackmint.app.service.LiveEventService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@Tag(name = "Live Events API", description = "Push new notifications and dashboard changes")
+public class LiveEventController {
+
+    private final LiveEventService liveEventService;
+
+    public LiveEventController(LiveEventService liveEventService) {
+        this.liveEventService = liveEventService;
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream \"notification\" and \"dashboard\" events as they are committed")
+    public SseEmitter stream(@AuthenticationPrincipal AuthenticatedUser user) {
+        return liveEventService.subscribe(user.getId());
+    }
+}
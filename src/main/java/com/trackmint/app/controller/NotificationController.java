@@ -3,6 +3,7 @@ package com.trackmint.app.controller;
 import com.trackmint.app.dto.NotificationDTO;
 import com.trackmint.app.dto.NotificationRequestDTO;
 import com.trackmint.app.dto.NotificationSummaryDTO;
+import com.trackmint.app.security.AuthenticatedUser;
 import com.trackmint.app.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,7 +11,6 @@ import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -28,70 +28,70 @@ public class NotificationController {
     @GetMapping
     @Operation(summary = "Get all notifications")
     public ResponseEntity<List<NotificationDTO>> getAllNotifications(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(notificationService.getUserNotifications(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(notificationService.getUserNotifications(user.getId()));
     }
 
     @GetMapping("/unread")
     @Operation(summary = "Get unread notifications")
     public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(notificationService.getUnreadNotifications(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(notificationService.getUnreadNotifications(user.getId()));
     }
 
     @GetMapping("/count")
     @Operation(summary = "Get unread count")
     public ResponseEntity<Long> getUnreadCount(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(notificationService.getUnreadCount(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(notificationService.getUnreadCount(user.getId()));
     }
 
     @GetMapping("/summary")
     @Operation(summary = "Get notification summary")
     public ResponseEntity<NotificationSummaryDTO> getNotificationSummary(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(notificationService.getNotificationSummary(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(notificationService.getNotificationSummary(user.getId()));
     }
 
     @PostMapping
     @Operation(summary = "Create a notification (admin/system)")
     public ResponseEntity<NotificationDTO> createNotification(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody NotificationRequestDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(notificationService.createNotification(userDetails.getUsername(), dto));
+                .body(notificationService.createNotification(user.getId(), dto));
     }
 
     @PutMapping("/{id}/read")
     @Operation(summary = "Mark notification as read")
     public ResponseEntity<NotificationDTO> markAsRead(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        return ResponseEntity.ok(notificationService.markAsRead(userDetails.getUsername(), id));
+        return ResponseEntity.ok(notificationService.markAsRead(user.getId(), id));
     }
 
     @PutMapping("/read-all")
     @Operation(summary = "Mark all notifications as read")
     public ResponseEntity<Void> markAllAsRead(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        notificationService.markAllAsRead(userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        notificationService.markAllAsRead(user.getId());
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a notification")
     public ResponseEntity<Void> deleteNotification(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        notificationService.deleteNotification(userDetails.getUsername(), id);
+        notificationService.deleteNotification(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/old")
     @Operation(summary = "Delete old read notifications")
     public ResponseEntity<Void> deleteOldNotifications(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        notificationService.deleteOldNotifications(userDetails.getUsername());
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        notificationService.deleteOldNotifications(user.getId());
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -1,18 +1,30 @@
 package com.trackmint.app.controller;
 
 import com.trackmint.app.dto.DashboardSummaryDTO;
+import com.trackmint.app.dto.StatementImportDTO;
+import com.trackmint.app.dto.TransactionBatchRequestDTO;
+import com.trackmint.app.dto.TransactionPageDTO;
 import com.trackmint.app.dto.TransactionRequestDTO;
 import com.trackmint.app.dto.TransactionResponseDTO;
+import com.trackmint.app.security.AuthenticatedUser;
+import com.trackmint.app.service.TransactionExportService;
+import com.trackmint.app.service.StatementImportService;
+import com.trackmint.app.service.SummaryCache;
 import com.trackmint.app.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -22,90 +34,154 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final TransactionExportService transactionExportService;
+    private final StatementImportService statementImportService;
+    private final SummaryCache summaryCache;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 TransactionExportService transactionExportService,
+                                 StatementImportService statementImportService,
+                                 SummaryCache summaryCache) {
         this.transactionService = transactionService;
+        this.transactionExportService = transactionExportService;
+        this.statementImportService = statementImportService;
+        this.summaryCache = summaryCache;
     }
 
     @PostMapping
     @Operation(summary = "Add a new transaction")
     public ResponseEntity<TransactionResponseDTO> addTransaction(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Valid @RequestBody TransactionRequestDTO dto) {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(transactionService.addTransaction(
-                        userDetails.getUsername(), dto));
+                        user.getId(), dto));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Add up to 5000 transactions in one request")
+    public ResponseEntity<List<TransactionResponseDTO>> addTransactions(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @Valid @RequestBody TransactionBatchRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(transactionService.addTransactions(
+                        user.getId(), dto.getTransactions()));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import a bank statement CSV (date, description, amount[, category, type]) in the background")
+    public ResponseEntity<StatementImportDTO> importStatement(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam("file") MultipartFile file) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(statementImportService.startImport(user.getId(), file));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get the progress of a statement import")
+    public ResponseEntity<StatementImportDTO> getImport(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(statementImportService.getImport(user.getId(), jobId));
     }
 
     @GetMapping
-    @Operation(summary = "Get all transactions")
-    public ResponseEntity<List<TransactionResponseDTO>> getAllTransactions(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    @Operation(summary = "Get all transactions, newest first, one page at a time")
+    public ResponseEntity<TransactionPageDTO> getAllTransactions(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         return ResponseEntity.ok(transactionService
-                .getAllTransactions(userDetails.getUsername()));
+                .getAllTransactions(user.getId(), cursor, limit));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get transaction by ID")
     public ResponseEntity<TransactionResponseDTO> getTransactionById(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
         return ResponseEntity.ok(transactionService
-                .getTransactionById(userDetails.getUsername(), id));
+                .getTransactionById(user.getId(), id));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update a transaction")
     public ResponseEntity<TransactionResponseDTO> updateTransaction(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id,
             @Valid @RequestBody TransactionRequestDTO dto) {
         return ResponseEntity.ok(transactionService
-                .updateTransaction(userDetails.getUsername(), id, dto));
+                .updateTransaction(user.getId(), id, dto));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a transaction")
     public ResponseEntity<Void> deleteTransaction(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @PathVariable Long id) {
-        transactionService.deleteTransaction(userDetails.getUsername(), id);
+        transactionService.deleteTransaction(user.getId(), id);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/type/{type}")
     @Operation(summary = "Get transactions by type")
-    public ResponseEntity<List<TransactionResponseDTO>> getByType(
-            @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable String type) {
+    public ResponseEntity<TransactionPageDTO> getByType(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         return ResponseEntity.ok(transactionService
-                .getTransactionsByType(userDetails.getUsername(), type));
+                .getTransactionsByType(user.getId(), type, cursor, limit));
     }
 
     @GetMapping("/category/{category}")
     @Operation(summary = "Get transactions by category")
-    public ResponseEntity<List<TransactionResponseDTO>> getByCategory(
-            @AuthenticationPrincipal UserDetails userDetails,
-            @PathVariable String category) {
+    public ResponseEntity<TransactionPageDTO> getByCategory(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         return ResponseEntity.ok(transactionService
-                .getTransactionsByCategory(userDetails.getUsername(), category));
+                .getTransactionsByCategory(user.getId(), category, cursor, limit));
     }
 
     @GetMapping("/range")
     @Operation(summary = "Get transactions by date range")
-    public ResponseEntity<List<TransactionResponseDTO>> getByDateRange(
-            @AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<TransactionPageDTO> getByDateRange(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         return ResponseEntity.ok(transactionService
-                .getTransactionsByDateRange(userDetails.getUsername(), start, end));
+                .getTransactionsByDateRange(user.getId(), start, end, cursor, limit));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export the full transaction history as ndjson or csv")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = TransactionExportService.NDJSON) String format) {
+        String exportFormat = transactionExportService.normalizeFormat(format);
+        Long userId = user.getId();
+        StreamingResponseBody body = out ->
+                transactionExportService.exportTransactions(userId, exportFormat, out);
+
+        boolean csv = TransactionExportService.CSV.equals(exportFormat);
+        return ResponseEntity.ok()
+                .contentType(csv
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat).build().toString())
+                .body(body);
     }
 
     @GetMapping("/summary")
     @Operation(summary = "Get dashboard summary")
     public ResponseEntity<DashboardSummaryDTO> getDashboardSummary(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        return ResponseEntity.ok(transactionService
-                .getDashboardSummary(userDetails.getUsername()));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(summaryCache.get(user.getId(), SummaryCache.Summary.TRANSACTIONS,
+                () -> transactionService.getDashboardSummary(user.getId())));
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.trackmint.app.dto;
+
+import lombok.Data;
+import java.util.HashMap;
+import java.util.Map;
+
+// Change to the dashboard totals caused by one committed write. Amounts are signed.
+// resync means the change was too large to describe; the client should refetch.
+@Data
+public class DashboardDeltaDTO {
+    private Double income = 0.0;
+    private Double expenses = 0.0;
+    private Map<String, Double> categorySpending = new HashMap<>();
+    private boolean resync;
+
+    public static DashboardDeltaDTO resync() {
+        DashboardDeltaDTO delta = new DashboardDeltaDTO();
+        delta.setResync(true);
+        return delta;
+    }
+
+    // sign is 1 for a transaction that now counts and -1 for one that no longer does
+    public void add(String type, String category, double amount, int sign) {
+        if ("INCOME".equals(type)) {
+            income += sign * amount;
+        } else if ("EXPENSE".equals(type)) {
+            expenses += sign * amount;
+            categorySpending.merge(category, sign * amount, Double::sum);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.trackmint.app.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class StatementImportDTO {
+    private String jobId;
+    private String fileName;
+    private String status; // QUEUED, RUNNING, COMPLETED or FAILED
+    private long rowsRead;
+    private long rowsRejected;
+    private long rowsImported;
+    private long rowsSkipped; // already present, so not imported again
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt; // last progress write or heartbeat from the running node
+    private String error;
+    private List<String> rejections;
+}
@@ -0,0 +1,15 @@
+package com.trackmint.app.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class TransactionBatchRequestDTO {
+
+    @NotEmpty(message = "At least one transaction is required")
+    @Size(max = 5000, message = "At most 5000 transactions per batch")
+    private List<@Valid TransactionRequestDTO> transactions;
+}
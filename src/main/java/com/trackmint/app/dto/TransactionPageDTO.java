@@ -0,0 +1,11 @@
+package com.trackmint.app.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class TransactionPageDTO {
+    private List<TransactionResponseDTO> transactions;
+    private String nextCursor; // null on the last page
+    private boolean hasMore;
+}
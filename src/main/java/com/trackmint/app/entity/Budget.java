@@ -31,6 +31,10 @@ public class Budget {
 
     private Integer year;
 
+    // Highest alert threshold (percent) already notified; see BudgetAlertService
+    @Column(nullable = false)
+    private Integer alertedThreshold = 0;
+
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
@@ -0,0 +1,33 @@
+package com.trackmint.app.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "job_runs")
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String jobName;
+
+    @Column(nullable = false)
+    private String node;
+
+    // RUNNING, SUCCEEDED or FAILED; a run left RUNNING was cut short by its node stopping
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(columnDefinition = "text")
+    private String error;
+}
@@ -0,0 +1,43 @@
+package com.trackmint.app.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column, so publishing never loads the user
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    // JSON, read by the consumer registered for the type
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    // Failed deliveries so far; events at the limit are left for inspection
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Not delivered before this; moved back after each failure
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        availableAt = createdAt;
+    }
+}
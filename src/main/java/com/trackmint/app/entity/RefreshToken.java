@@ -3,6 +3,7 @@ package com.trackmint.app.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @Entity
@@ -13,8 +14,13 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 of the token handed to the client; the raw token is never stored
+    @Column(nullable = false, unique = true, columnDefinition = "bytea")
+    private byte[] tokenHash;
+
+    // Shared by every token rotated from the same login
+    @Column(nullable = false)
+    private UUID familyId;
 
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
@@ -26,7 +32,10 @@ public class RefreshToken {
     @Column(nullable = false)
     private boolean revoked;
 
+    // Set once the token has been exchanged for its successor
+    private LocalDateTime rotatedAt;
+
     public boolean isExpired() {
         return LocalDateTime.now().isAfter(expiresAt);
     }
-}
\ No newline at end of file
+}
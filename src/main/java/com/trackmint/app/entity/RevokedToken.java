@@ -16,6 +16,12 @@ public class RevokedToken {
     @Column(nullable = false, unique = true, length = 512)
     private String token;
 
+    @Column(unique = true, length = 36)
+    private String jti;
+
     @Column(nullable = false)
     private LocalDateTime revokedAt;
+
+    // Expiry of the revoked access token; the row is irrelevant after this instant
+    private LocalDateTime expiresAt;
 }
\ No newline at end of file
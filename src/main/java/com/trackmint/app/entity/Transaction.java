@@ -9,8 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "transactions")
 public class Transaction {
 
+    // Pooled sequence ids (50 per round trip) let Hibernate batch inserts; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
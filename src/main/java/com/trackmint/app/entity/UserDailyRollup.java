@@ -0,0 +1,45 @@
+package com.trackmint.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Written only through the native upserts in UserDailyRollupRepository
+@Data
+@Entity
+@Table(name = "user_daily_rollup")
+@IdClass(UserDailyRollup.Key.class)
+public class UserDailyRollup {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate day;
+
+    @Id
+    private String category;
+
+    @Id
+    private String type;
+
+    @Column(nullable = false)
+    private Double sum;
+
+    @Column(nullable = false)
+    private Long count;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate day;
+        private String category;
+        private String type;
+    }
+}
@@ -55,6 +55,22 @@ public class AppException extends RuntimeException {
         );
     }
 
+    public static AppException tooManyAttempts() {
+        return new AppException(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Attempts",
+                "Too many sign-in attempts. Please wait a minute and try again."
+        );
+    }
+
+    public static AppException authenticationBusy() {
+        return new AppException(
+                HttpStatus.TOO_MANY_REQUESTS,
+                "Server Busy",
+                "The server is handling too many sign-ins. Please try again shortly."
+        );
+    }
+
     // User errors
     public static AppException userNotFound() {
         return new AppException(
@@ -122,6 +138,39 @@ public class AppException extends RuntimeException {
         );
     }
 
+    public static AppException invalidCursor() {
+        return new AppException(
+                HttpStatus.BAD_REQUEST,
+                "Invalid Cursor",
+                "The page cursor is invalid. Please start again from the first page."
+        );
+    }
+
+    public static AppException unsupportedExportFormat() {
+        return new AppException(
+                HttpStatus.BAD_REQUEST,
+                "Unsupported Export Format",
+                "Export format must be ndjson or csv."
+        );
+    }
+
+    // Import errors
+    public static AppException emptyImportFile() {
+        return new AppException(
+                HttpStatus.BAD_REQUEST,
+                "Empty Import File",
+                "The uploaded file is empty."
+        );
+    }
+
+    public static AppException importNotFound() {
+        return new AppException(
+                HttpStatus.NOT_FOUND,
+                "Import Not Found",
+                "Import job not found. Finished jobs are kept for a limited time."
+        );
+    }
+
     // Email errors
     public static AppException emailSendFailed() {
         return new AppException(
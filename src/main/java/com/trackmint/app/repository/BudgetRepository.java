@@ -3,21 +3,59 @@ package com.trackmint.app.repository;
 import com.trackmint.app.entity.Budget;
 import com.trackmint.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
+    // Owner-scoped single-statement access
+    Optional<Budget> findByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Budget b WHERE b.id = :id AND b.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Sets spent and returns the updated row in the same round trip
+    @Query(value = "UPDATE budgets SET spent = :spent, updated_at = now() " +
+            "WHERE id = :id AND user_id = :userId RETURNING *",
+            nativeQuery = true)
+    Optional<Budget> updateSpentByIdAndUserId(@Param("id") Long id,
+                                              @Param("userId") Long userId,
+                                              @Param("spent") Double spent);
+
+    // Moves spent by delta in the database, so concurrent writers add up instead of
+    // overwriting each other. Returns (id, category, spent, amount, alerted_threshold) of the
+    // updated budget, if any.
+    @Query(value = "UPDATE budgets SET spent = COALESCE(spent, 0) + :delta, updated_at = now() " +
+            "WHERE user_id = :userId AND category = :category AND month = :month AND year = :year " +
+            "RETURNING id, category, spent, amount, alerted_threshold",
+            nativeQuery = true)
+    List<Object[]> addToSpent(@Param("userId") Long userId,
+                              @Param("category") String category,
+                              @Param("month") Integer month,
+                              @Param("year") Integer year,
+                              @Param("delta") Double delta);
+
+    // Moves the alerted threshold only if nobody else has moved it since it was read
+    @Modifying
+    @Transactional
+    @Query("UPDATE Budget b SET b.alertedThreshold = :threshold " +
+            "WHERE b.id = :id AND b.alertedThreshold = :expected")
+    int compareAndSetAlertedThreshold(@Param("id") Long id,
+                                      @Param("expected") Integer expected,
+                                      @Param("threshold") Integer threshold);
+
     List<Budget> findByUserOrderByCategoryAsc(User user);
 
     List<Budget> findByUserAndMonthAndYearOrderByCategoryAsc(User user, Integer month, Integer year);
 
-    Optional<Budget> findByUserAndCategoryAndMonthAndYear(User user, String category, Integer month, Integer year);
-
     @Query("SELECT SUM(b.amount) FROM Budget b WHERE b.user = :user AND b.month = :month AND b.year = :year")
     Double getTotalBudgetByUserAndMonth(@Param("user") User user, @Param("month") Integer month, @Param("year") Integer year);
 
@@ -3,9 +3,11 @@ package com.trackmint.app.repository;
 import com.trackmint.app.entity.Category;
 import com.trackmint.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +16,26 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
 
     List<Category> findByUserOrderByNameAsc(User user);
 
-    Optional<Category> findByUserAndId(User user, Long id);
+    // Owner-scoped single-statement access
+    Optional<Category> findByIdAndUserId(Long id, Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Category c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Bulk deletes skip the JPA cascade, so linked transactions are removed explicitly,
+    // together with their share of the daily rollup. Returns one (category, month, year,
+    // expense total) row per month the deleted transactions fell in, empty when none were linked.
+    @Query(value = "WITH deleted AS (" +
+            "    DELETE FROM transactions WHERE category_id = :id AND user_id = :userId " +
+            "    RETURNING user_id, date, category, type, amount), " +
+            "rollup AS (" + UserDailyRollupRepository.SUBTRACT_DELETED + ") " +
+            "SELECT category, CAST(EXTRACT(MONTH FROM date) AS int), CAST(EXTRACT(YEAR FROM date) AS int), " +
+            "       SUM(CASE WHEN type = 'EXPENSE' THEN ABS(amount) ELSE 0 END) " +
+            "FROM deleted GROUP BY 1, 2, 3 ORDER BY 3, 2, 1",
+            nativeQuery = true)
+    List<Object[]> deleteTransactionsByCategoryIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
     Optional<Category> findByUserAndName(User user, String name);
 
@@ -38,9 +59,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
             "WHERE t.categoryEntity.id = :categoryId AND t.user = :user")
     Long getTransactionCountByCategory(@Param("user") User user, @Param("categoryId") Long categoryId);
 
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE'")
-    Double getTotalSpending(@Param("user") User user);
-
     @Query("SELECT c FROM Category c WHERE c.user = :user AND c NOT IN " +
             "(SELECT DISTINCT t.categoryEntity FROM Transaction t WHERE t.user = :user AND t.categoryEntity IS NOT NULL)")
     List<Category> findCategoriesWithNoTransactions(@Param("user") User user);
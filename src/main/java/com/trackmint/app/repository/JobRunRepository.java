@@ -0,0 +1,21 @@
+package com.trackmint.app.repository;
+
+import com.trackmint.app.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    List<JobRun> findTop20ByJobNameOrderByStartedAtDescIdDesc(String jobName);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobRun r WHERE r.jobName = :jobName AND r.startedAt < :before")
+    int deleteHistory(@Param("jobName") String jobName, @Param("before") LocalDateTime before);
+}
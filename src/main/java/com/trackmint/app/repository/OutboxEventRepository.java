@@ -0,0 +1,65 @@
+package com.trackmint.app.repository;
+
+import com.trackmint.app.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest due events of one type, locked for the caller's transaction. Rows another
+    // dispatcher holds are skipped, so dispatchers on several nodes never overlap.
+    @Query(value = "SELECT * FROM outbox_events " +
+            "WHERE type = :type AND available_at <= :now AND attempts < :maxAttempts " +
+            "ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> claimBatch(@Param("type") String type,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("maxAttempts") int maxAttempts,
+                                 @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id AND attempts < :maxAttempts " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> claim(@Param("id") Long id, @Param("maxAttempts") int maxAttempts);
+
+    // Like claimBatch, but for delivery outside the transaction: instead of staying locked,
+    // the events are held back for the lease, which the caller's commit makes visible
+    @Query(value = "WITH leased AS (" +
+            "UPDATE outbox_events SET available_at = CAST(:now AS timestamp) + make_interval(secs => :leaseSeconds) " +
+            "WHERE id IN (SELECT id FROM outbox_events " +
+            "    WHERE type = :type AND available_at <= :now AND attempts < :maxAttempts " +
+            "    ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING *) " +
+            "SELECT * FROM leased ORDER BY id",
+            nativeQuery = true)
+    List<OutboxEvent> leaseBatch(@Param("type") String type,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("maxAttempts") int maxAttempts,
+                                 @Param("limit") int limit,
+                                 @Param("leaseSeconds") double leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM outbox_events WHERE type = :type AND created_at < :cutoff", nativeQuery = true)
+    int deleteCreatedBefore(@Param("type") String type, @Param("cutoff") LocalDateTime cutoff);
+
+    // Counts the failure and holds the event back for backoff * 2^(earlier failures), capped
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE outbox_events SET attempts = attempts + 1, " +
+            "available_at = CAST(:now AS timestamp) " +
+            "    + make_interval(secs => LEAST(:backoffSeconds * power(2, attempts), :maxBackoffSeconds)) " +
+            "WHERE id = :id",
+            nativeQuery = true)
+    int markFailed(@Param("id") Long id,
+                   @Param("now") LocalDateTime now,
+                   @Param("backoffSeconds") double backoffSeconds,
+                   @Param("maxBackoffSeconds") double maxBackoffSeconds);
+}
@@ -1,16 +1,42 @@
 package com.trackmint.app.repository;
 
 import com.trackmint.app.entity.RefreshToken;
-import com.trackmint.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
+    // Marks a live token rotated and inserts its successor in the same family, in one
+    // statement. Returns (user_id, family_id), or nothing when the token was not live.
     @Transactional
-    void deleteByUser(User user);
-}
\ No newline at end of file
+    @Query(value = "WITH rotated AS (" +
+            "UPDATE refresh_tokens SET rotated_at = :now " +
+            "WHERE token_hash = :tokenHash AND rotated_at IS NULL AND NOT revoked AND expires_at > :now " +
+            "RETURNING user_id, family_id) " +
+            "INSERT INTO refresh_tokens (user_id, token_hash, family_id, expires_at, revoked) " +
+            "SELECT user_id, :nextHash, family_id, :expiresAt, false FROM rotated " +
+            "RETURNING user_id, family_id",
+            nativeQuery = true)
+    List<Object[]> rotate(@Param("tokenHash") byte[] tokenHash,
+                      @Param("nextHash") byte[] nextHash,
+                      @Param("now") LocalDateTime now,
+                      @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query("SELECT COUNT(r) > 0 FROM RefreshToken r WHERE r.familyId = :familyId AND r.revoked = true")
+    boolean isFamilyRevoked(@Param("familyId") UUID familyId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId);
+}
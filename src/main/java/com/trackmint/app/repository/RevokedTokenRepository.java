@@ -2,9 +2,21 @@ package com.trackmint.app.repository;
 
 import com.trackmint.app.entity.RevokedToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Repository
 public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
     boolean existsByToken(String token);
+
+    boolean existsByJti(String jti);
+
+    // Returns [jti, expiresAt] for revocations that still matter
+    @Query("SELECT r.jti, r.expiresAt FROM RevokedToken r " +
+            "WHERE r.jti IS NOT NULL AND r.expiresAt > :now AND r.revokedAt >= :since")
+    List<Object[]> findActiveRevocations(@Param("now") LocalDateTime now,
+                                         @Param("since") LocalDateTime since);
 }
\ No newline at end of file
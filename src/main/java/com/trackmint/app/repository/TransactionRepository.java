@@ -1,70 +1,107 @@
 package com.trackmint.app.repository;
 
 import com.trackmint.app.entity.Transaction;
-import com.trackmint.app.entity.User;
-import com.trackmint.app.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
-    // Basic user queries
-    List<Transaction> findByUserOrderByDateDesc(User user);
-
-    List<Transaction> findTop5ByUserOrderByDateDesc(User user);
-
-    List<Transaction> findByUserAndType(User user, String type);
-
-    // Keep the String version for backward compatibility
-    List<Transaction> findByUserAndCategory(User user, String category);
-
-    // Use categoryEntity for the Category object version
-    List<Transaction> findByUserAndCategoryEntity(User user, Category category);
-
-    List<Transaction> findByUserAndDateBetweenOrderByDateDesc(User user, LocalDateTime start, LocalDateTime end);
-
-    // Sum queries
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.type = :type")
-    Double sumAmountByUserAndType(@Param("user") User user, @Param("type") String type);
-
-    // Spending by category (using String for backward compatibility)
-    @Query("SELECT t.category, SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE' GROUP BY t.category")
-    List<Object[]> findSpendingByCategory(@Param("user") User user);
-
-    // Get total spent for a specific category using Category entity
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.categoryEntity = :category AND t.type = 'EXPENSE'")
-    Double getTotalSpentByCategory(@Param("user") User user, @Param("category") Category category);
-
-    // Get transaction count for a specific category using Category entity
-    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.user = :user AND t.categoryEntity = :category")
-    Long getTransactionCountByCategory(@Param("user") User user, @Param("category") Category category);
-
-    // Get spending by category with Category objects
-    @Query("SELECT t.categoryEntity, SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE' GROUP BY t.categoryEntity")
-    List<Object[]> findSpendingByCategoryObject(@Param("user") User user);
-
-    // Get all transactions for a specific category ordered by date using Category entity
-    List<Transaction> findByUserAndCategoryEntityOrderByDateDesc(User user, Category category);
-
-    // Get monthly spending for a specific category using Category entity
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.categoryEntity = :category AND t.type = 'EXPENSE' AND FUNCTION('MONTH', t.date) = :month AND FUNCTION('YEAR', t.date) = :year")
-    Double getMonthlySpentByCategory(@Param("user") User user, @Param("category") Category category, @Param("month") int month, @Param("year") int year);
-
-    // FIXED: Get categories with no transactions - using categoryEntity
-    @Query("SELECT c FROM Category c WHERE c.user = :user AND c NOT IN " +
-            "(SELECT DISTINCT t.categoryEntity FROM Transaction t WHERE t.user = :user AND t.categoryEntity IS NOT NULL)")
-    List<Category> findCategoriesWithNoTransactions(@Param("user") User user);
-
-    // Weekly spending native query
-    @Query(value = "SELECT EXTRACT(DOW FROM t.date) as day_of_week, COALESCE(SUM(t.amount), 0) " +
-            "FROM transactions t " +
-            "WHERE t.user_id = :userId AND t.date >= :startDate " +
-            "GROUP BY EXTRACT(DOW FROM t.date)",
+    // Owner-scoped single-statement access
+    Optional<Transaction> findByIdAndUserId(Long id, Long userId);
+
+    // Deletes the row and takes it out of the daily rollup in the same statement.
+    // Returns the deleted (type, category, amount, month, year), or nothing when the user owns no such row.
+    @Query(value = "WITH deleted AS (" +
+            "    DELETE FROM transactions WHERE id = :id AND user_id = :userId " +
+            "    RETURNING user_id, date, category, type, amount), " +
+            "rollup AS (" + UserDailyRollupRepository.SUBTRACT_DELETED + ") " +
+            "SELECT type, category, amount, CAST(EXTRACT(MONTH FROM date) AS int), " +
+            "       CAST(EXTRACT(YEAR FROM date) AS int) FROM deleted",
             nativeQuery = true)
-    List<Object[]> findWeeklySpendingNative(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate);
-}
\ No newline at end of file
+    List<Object[]> deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Keyset pages ordered by (date, id) descending. Rows strictly after the
+    // (cursorDate, cursorId) position are returned, backed by the (user_id, ..., date, id) indexes.
+    // Each has a first-page variant without the position.
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+            "AND (t.date, t.id) < (:cursorDate, :cursorId) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPage(@Param("userId") Long userId,
+                               @Param("cursorDate") LocalDateTime cursorDate,
+                               @Param("cursorId") Long cursorId,
+                               Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.type = :type " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findFirstPageByType(@Param("userId") Long userId,
+                                          @Param("type") String type,
+                                          Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.type = :type " +
+            "AND (t.date, t.id) < (:cursorDate, :cursorId) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByType(@Param("userId") Long userId,
+                                     @Param("type") String type,
+                                     @Param("cursorDate") LocalDateTime cursorDate,
+                                     @Param("cursorId") Long cursorId,
+                                     Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.category = :category " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findFirstPageByCategory(@Param("userId") Long userId,
+                                              @Param("category") String category,
+                                              Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.category = :category " +
+            "AND (t.date, t.id) < (:cursorDate, :cursorId) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByCategory(@Param("userId") Long userId,
+                                         @Param("category") String category,
+                                         @Param("cursorDate") LocalDateTime cursorDate,
+                                         @Param("cursorId") Long cursorId,
+                                         Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+            "AND t.date >= :start AND t.date <= :end " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findFirstPageByDateRange(@Param("userId") Long userId,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("end") LocalDateTime end,
+                                               Limit limit);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId " +
+            "AND t.date >= :start AND t.date <= :end " +
+            "AND (t.date, t.id) < (:cursorDate, :cursorId) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findPageByDateRange(@Param("userId") Long userId,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("cursorDate") LocalDateTime cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          Limit limit);
+
+    // Full history for export. Rows are pulled from a server-side cursor in fetch-size
+    // chunks, so the caller must consume the stream inside a transaction and close it.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    Stream<Transaction> streamByUserId(@Param("userId") Long userId);
+
+    List<Transaction> findTop5ByUserIdOrderByDateDescIdDesc(Long userId);
+}
@@ -0,0 +1,126 @@
+package com.trackmint.app.repository;
+
+import com.trackmint.app.entity.UserDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserDailyRollupRepository extends JpaRepository<UserDailyRollup, UserDailyRollup.Key> {
+
+    // Deltas add onto the existing bucket, so concurrent writers never lose an update
+    String UPSERT = " ON CONFLICT (user_id, day, category, type) DO UPDATE SET " +
+            "sum = user_daily_rollup.sum + EXCLUDED.sum, " +
+            "count = user_daily_rollup.count + EXCLUDED.count";
+
+    // Takes rows out of the rollup. Appended to a "WITH deleted AS (DELETE ... RETURNING
+    // user_id, date, category, type, amount)" so the delete and the delta are one statement.
+    String SUBTRACT_DELETED = "INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count) " +
+            "SELECT user_id, CAST(date AS date), category, type, -SUM(amount), -COUNT(*) " +
+            "FROM deleted GROUP BY 1, 2, 3, 4" + UPSERT;
+
+    // Advisory lock key for a user's rollup, above the int4 range of the hashtext keys
+    // ClusterJobRunner uses
+    long LOCK_KEY_OFFSET = 1L << 32;
+
+    // Every transaction that writes a user's transactions holds this until it commits. Writers
+    // share it; a rebuild takes it exclusively, so it never reads rows whose deltas are still
+    // to land on top of what it derives.
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock_shared(CAST(:userId AS bigint) + "
+            + LOCK_KEY_OFFSET + ")) l", nativeQuery = true)
+    int lockForWrite(@Param("userId") Long userId);
+
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(CAST(:userId AS bigint) + "
+            + LOCK_KEY_OFFSET + ")) l", nativeQuery = true)
+    int lockForRebuild(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count) " +
+            "VALUES (:userId, :day, :category, :type, :sum, :count)" + UPSERT,
+            nativeQuery = true)
+    void add(@Param("userId") Long userId, @Param("day") LocalDate day,
+             @Param("category") String category, @Param("type") String type,
+             @Param("sum") double sum, @Param("count") long count);
+
+    // Folds already-flushed transactions in, one statement per batch chunk
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count) " +
+            "SELECT user_id, CAST(date AS date), category, type, SUM(amount), COUNT(*) " +
+            "FROM transactions WHERE id IN (:ids) GROUP BY 1, 2, 3, 4" + UPSERT,
+            nativeQuery = true)
+    void addTransactions(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM user_daily_rollup WHERE user_id = :userId", nativeQuery = true)
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // Re-derives the user's buckets from the raw rows. Only safe under lockForRebuild, which
+    // keeps writers out between clearing the buckets and reading the rows.
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count) " +
+            "SELECT user_id, CAST(date AS date), category, type, SUM(amount), COUNT(*) " +
+            "FROM transactions WHERE user_id = :userId GROUP BY 1, 2, 3, 4" + UPSERT,
+            nativeQuery = true)
+    int rebuildByUserId(@Param("userId") Long userId);
+
+    // Dashboard aggregates in one round trip. Returns (kind, label, income, amount) rows:
+    //   TOTAL    - income and expense sums over the whole history
+    //   CATEGORY - expense sum per category
+    //   DAY      - sum per weekday ("Sun" .. "Sat") from :weekStart on
+    // Buckets emptied by deletes and updates are skipped.
+    @Query(value = "WITH scoped AS MATERIALIZED (" +
+            "    SELECT day, category, type, sum, count FROM user_daily_rollup " +
+            "    WHERE user_id = :userId AND count > 0) " +
+            "SELECT 'TOTAL' AS kind, NULL AS label, " +
+            "       COALESCE(SUM(sum) FILTER (WHERE type = 'INCOME'), 0) AS income, " +
+            "       COALESCE(SUM(sum) FILTER (WHERE type = 'EXPENSE'), 0) AS amount " +
+            "FROM scoped " +
+            "UNION ALL " +
+            "SELECT 'CATEGORY', category, 0, SUM(sum) " +
+            "FROM scoped WHERE type = 'EXPENSE' GROUP BY category " +
+            "UNION ALL " +
+            "SELECT 'DAY', to_char(day, 'Dy'), 0, SUM(sum) " +
+            "FROM scoped WHERE day >= :weekStart GROUP BY to_char(day, 'Dy')",
+            nativeQuery = true)
+    List<Object[]> findDashboardAggregates(@Param("userId") Long userId,
+                                           @Param("weekStart") LocalDate weekStart);
+
+    // (category, expense sum, expense count) for every category name the user has spent under.
+    // Income is left out of the count, as in CategoryRepository.findCategoriesWithSpending.
+    @Query(value = "SELECT category, SUM(sum), SUM(count) " +
+            "FROM user_daily_rollup WHERE user_id = :userId AND type = 'EXPENSE' " +
+            "GROUP BY category HAVING SUM(count) > 0",
+            nativeQuery = true)
+    List<Object[]> findCategoryTotals(@Param("userId") Long userId);
+
+    // Weekly summary totals for the users in (afterId, lastId] with activity in
+    // [weekStart, weekEnd), recorded in weekly_summaries as they are read. Users already
+    // summarized for the week are skipped. Returns (user_id, earned, spent) rows.
+    @Query(value = "INSERT INTO weekly_summaries (user_id, week_start, earned, spent, created_at) " +
+            "SELECT user_id, :weekStart, " +
+            "       COALESCE(SUM(sum) FILTER (WHERE type = 'INCOME'), 0), " +
+            "       COALESCE(SUM(sum) FILTER (WHERE type = 'EXPENSE'), 0), :now " +
+            "FROM user_daily_rollup " +
+            "WHERE user_id > :afterId AND user_id <= :lastId AND day >= :weekStart AND day < :weekEnd " +
+            "  AND count > 0 " +
+            "GROUP BY user_id ORDER BY user_id " +
+            "ON CONFLICT (user_id, week_start) DO NOTHING " +
+            "RETURNING user_id, earned, spent",
+            nativeQuery = true)
+    List<Object[]> claimWeeklySummaries(@Param("afterId") Long afterId,
+                                        @Param("lastId") Long lastId,
+                                        @Param("weekStart") LocalDate weekStart,
+                                        @Param("weekEnd") LocalDate weekEnd,
+                                        @Param("now") LocalDateTime now);
+}
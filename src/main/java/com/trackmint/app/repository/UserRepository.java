@@ -2,11 +2,47 @@ package com.trackmint.app.repository;
 
 import com.trackmint.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByFullName(String fullName);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    // Keyset page of user ids, for jobs that walk every user in chunks
+    @Query(value = "SELECT id FROM users WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    // Same as incrementDataVersion for many users, in id order like every other writer
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) " +
+            "SELECT id, 1 FROM users WHERE id IN (:userIds) ORDER BY id " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = user_data_versions.version + 1",
+            nativeQuery = true)
+    void incrementDataVersions(@Param("userIds") Collection<Long> userIds);
+
+    // 0 until the user's first write
+    @Query(value = "SELECT COALESCE((SELECT version FROM user_data_versions WHERE user_id = :userId), 0)",
+            nativeQuery = true)
+    long findDataVersion(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_data_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = user_data_versions.version + 1",
+            nativeQuery = true)
+    void incrementDataVersion(@Param("userId") Long userId);
 }
\ No newline at end of file
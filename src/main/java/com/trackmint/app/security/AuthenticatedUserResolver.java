@@ -0,0 +1,40 @@
+package com.trackmint.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trackmint.app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+@Component
+public class AuthenticatedUserResolver {
+
+    private final UserRepository userRepository;
+    private final boolean verifyAgainstDatabase;
+    private final Cache<String, AuthenticatedUser> userCache;
+
+    public AuthenticatedUserResolver(UserRepository userRepository,
+                                     @Value("${app.security.principal-source:token}") String principalSource,
+                                     @Value("${app.security.user-cache-ttl:30s}") Duration userCacheTtl,
+                                     @Value("${app.security.user-cache-size:10000}") long userCacheSize) {
+        this.userRepository = userRepository;
+        this.verifyAgainstDatabase = "database".equalsIgnoreCase(principalSource);
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .expireAfterWrite(userCacheTtl)
+                .build();
+    }
+
+    // "token" mode trusts the verified claims. "database" mode, and tokens issued before the
+    // uid claim existed, confirm the user exists through a short-TTL cache.
+    // Returns null when the user no longer exists.
+    public AuthenticatedUser resolve(JwtClaims claims) {
+        if (!verifyAgainstDatabase && claims.userId() != null) {
+            return new AuthenticatedUser(claims.userId(), claims.email());
+        }
+        return userCache.get(claims.email(), email -> userRepository.findByEmail(email)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getEmail()))
+                .orElse(null));
+    }
+}
@@ -0,0 +1,120 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.exception.AppException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs password hashing and verification on a small dedicated pool instead of the request
+// threads. BCrypt is deliberately CPU-heavy, so the pool only gets the cores it is given and
+// a short queue: when both are full the caller is refused with 429 at once instead of piling
+// up, and a login storm cannot take the threads and cores the rest of the API runs on.
+// BCrypt cannot be interrupted, so work is only ever refused before it starts: a hash still
+// queued after queueTimeout is taken off the queue, and one that has started always runs to
+// completion for its caller.
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration queueTimeout;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueSize, Duration queueTimeout) {
+        AtomicInteger created = new AtomicInteger();
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + created.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueTimeout = queueTimeout;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Only parses the stored hash, so it stays on the caller's thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        // Whichever side sets this first decides: the worker starting the hash, or the caller
+        // withdrawing it from the queue
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> claimed.compareAndSet(false, true) ? task.call() : null);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw AppException.authenticationBusy();
+        }
+        try {
+            try {
+                return future.get(queueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (withdraw(claimed, future)) {
+                    rejected.incrementAndGet();
+                    throw AppException.authenticationBusy();
+                }
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            withdraw(claimed, future);
+            Thread.currentThread().interrupt();
+            throw AppException.authenticationBusy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Takes a hash that has not started off the queue; one already running is left to finish
+    private boolean withdraw(AtomicBoolean claimed, Future<?> future) {
+        if (!claimed.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.remove((Runnable) future);
+        return true;
+    }
+}
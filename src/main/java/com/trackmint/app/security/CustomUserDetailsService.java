@@ -3,13 +3,13 @@ package com.trackmint.app.security;
 import com.trackmint.app.entity.User;
 import com.trackmint.app.repository.UserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -22,10 +22,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
-                user.getPassword(),
-                new ArrayList<>()
+                user.getPassword()
         );
     }
-}
\ No newline at end of file
+
+    // Called after a successful login whose stored hash is below the configured BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AuthenticatedUser authenticated = (AuthenticatedUser) user;
+        userRepository.updatePassword(authenticated.getId(), newPassword);
+        return new AuthenticatedUser(authenticated.getId(), authenticated.getUsername(), newPassword);
+    }
+}
@@ -0,0 +1,8 @@
+package com.trackmint.app.security;
+
+import java.util.Date;
+
+// Verified, immutable view of an access token. Produced once per request by JwtUtil.parseToken.
+// userId and jti are null for tokens issued before those claims were added.
+public record JwtClaims(Long userId, String email, String jti, Date expiresAt) {
+}
@@ -1,13 +1,12 @@
 package com.trackmint.app.security;
 
+import com.trackmint.app.repository.RevokedTokenRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
@@ -16,11 +15,18 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final AuthenticatedUserResolver userResolver;
+    private final TokenRevocationIndex revocationIndex;
+    private final RevokedTokenRepository revokedTokenRepository;
 
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil,
+                     AuthenticatedUserResolver userResolver,
+                     TokenRevocationIndex revocationIndex,
+                     RevokedTokenRepository revokedTokenRepository) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.userResolver = userResolver;
+        this.revocationIndex = revocationIndex;
+        this.revokedTokenRepository = revokedTokenRepository;
     }
 
     @Override
@@ -31,20 +37,30 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // Signature and expiry are checked once here; the claims are reused below
             String token = authHeader.substring(7);
-            String email = jwtUtil.extractEmail(token);
-
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-                if (jwtUtil.isTokenValid(token, userDetails.getUsername())) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+            JwtClaims claims = jwtUtil.parseToken(token);
+
+            AuthenticatedUser user = claims != null && !isRevoked(token, claims)
+                    ? userResolver.resolve(claims) : null;
+
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authToken =
+                        new UsernamePasswordAuthenticationToken(
+                                user, null, user.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private boolean isRevoked(String token, JwtClaims claims) {
+        if (claims.jti() != null) {
+            return revocationIndex.isRevoked(claims.jti());
+        }
+        // Tokens issued before the jti claim existed can only be matched by value
+        return revokedTokenRepository.existsByToken(token);
+    }
+}
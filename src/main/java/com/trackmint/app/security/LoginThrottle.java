@@ -0,0 +1,85 @@
+package com.trackmint.app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+
+// Token buckets for the sign-in endpoints, one set keyed by client IP and one by email.
+// Each set is a fixed pair of arrays indexed by a hash of the key, guarded by striped locks,
+// so memory stays constant however many addresses or emails an attack rotates through. Like
+// the Bloom filter in TokenRevocationIndex this trades exactness for that bound: the rare
+// keys that collide share a bucket.
+@Component
+public class LoginThrottle {
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final Buckets byIp;
+    private final Buckets byEmail;
+    private final Counter throttled;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.security.login-throttle.buckets:65536}") int buckets,
+                         @Value("${app.security.login-throttle.per-ip:30}") int perIp,
+                         @Value("${app.security.login-throttle.per-email:10}") int perEmail,
+                         @Value("${app.security.login-throttle.window:1m}") Duration window) {
+        this.byIp = new Buckets(buckets, perIp, window);
+        this.byEmail = new Buckets(buckets, perEmail, window);
+        this.throttled = Counter.builder("trackmint.auth.throttled")
+                .description("Sign-in attempts refused by the per-IP or per-email limits")
+                .register(meterRegistry);
+    }
+
+    // Takes one attempt from the client's bucket and then the email's; false when either is empty
+    public boolean tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+        boolean allowed = byIp.tryTake("ip:" + clientIp, now)
+                && (email == null || byEmail.tryTake(email.trim().toLowerCase(Locale.ROOT), now));
+        if (!allowed) {
+            throttled.increment();
+        }
+        return allowed;
+    }
+
+    // Each bucket refills continuously, capacity attempts per window
+    private static final class Buckets {
+
+        private final double capacity;
+        private final double refillPerNano;
+        private final double[] tokens;
+        private final long[] updatedAt;
+        private final Object[] locks = new Object[LOCK_STRIPES];
+
+        Buckets(int size, int capacity, Duration window) {
+            this.capacity = capacity;
+            this.refillPerNano = capacity / (double) window.toNanos();
+            this.tokens = new double[size];
+            this.updatedAt = new long[size];
+            Arrays.fill(updatedAt, Long.MIN_VALUE);
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                locks[i] = new Object();
+            }
+        }
+
+        boolean tryTake(String key, long now) {
+            int hash = key.hashCode() * 0x9E3779B9;
+            int index = Math.floorMod(hash ^ (hash >>> 16), tokens.length);
+            synchronized (locks[index % LOCK_STRIPES]) {
+                double available = updatedAt[index] == Long.MIN_VALUE
+                        ? capacity
+                        : Math.min(capacity, tokens[index] + (now - updatedAt[index]) * refillPerNano);
+                updatedAt[index] = now;
+                if (available < 1) {
+                    tokens[index] = available;
+                    return false;
+                }
+                tokens[index] = available - 1;
+                return true;
+            }
+        }
+    }
+}
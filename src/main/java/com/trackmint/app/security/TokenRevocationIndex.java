@@ -0,0 +1,137 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// In-memory index of revoked access tokens, keyed by the jti claim.
+// A Bloom filter answers "definitely not revoked" for almost every request without touching
+// the map; only possible hits are confirmed against the concurrent set. Entries are dropped
+// once the token would have expired anyway, so the index never outgrows one token lifetime.
+@Component
+public class TokenRevocationIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationIndex.class);
+    private static final int HASHES = 3;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int bloomBits;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile AtomicLongArray bloom;
+    private volatile LocalDateTime lastSync;
+
+    public TokenRevocationIndex(RevokedTokenRepository revokedTokenRepository,
+                                @Value("${app.security.revocation.bloom-bits:1048576}") int bloomBits) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.bloomBits = bloomBits;
+        this.bloom = new AtomicLongArray(words());
+    }
+
+    @PostConstruct
+    public void load() {
+        sync();
+        log.info("Loaded {} active token revocations", revoked.size());
+    }
+
+    // Hot path: no locking and no allocation
+    public boolean isRevoked(String jti) {
+        if (!mightContain(bloom, jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(jti, expiresAtMillis);
+        add(bloom, jti);
+    }
+
+    // Picks up revocations written by other nodes and drops expired entries
+    @Scheduled(fixedDelayString = "${app.security.revocation.sync-interval:10s}",
+            initialDelayString = "${app.security.revocation.sync-interval:10s}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        // Overlap the window so rows committed late by another node are not missed
+        LocalDateTime since = lastSync != null ? lastSync.minusMinutes(1) : EPOCH;
+        for (Object[] row : revokedTokenRepository.findActiveRevocations(now, since)) {
+            revoke((String) row[0], toMillis((LocalDateTime) row[1]));
+        }
+        lastSync = now;
+        purgeExpired();
+    }
+
+    // Bloom filters cannot delete, so expired entries are removed by rebuilding from the set
+    synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (!revoked.values().removeIf(expiresAt -> expiresAt <= now)) {
+            return;
+        }
+        AtomicLongArray rebuilt = new AtomicLongArray(words());
+        for (String jti : revoked.keySet()) {
+            add(rebuilt, jti);
+        }
+        bloom = rebuilt;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private int words() {
+        return Math.max(1, bloomBits >>> 6);
+    }
+
+    private static boolean mightContain(AtomicLongArray bits, String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length() << 6;
+        for (int i = 1; i <= HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % size;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void add(AtomicLongArray bits, String jti) {
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long size = (long) bits.length() << 6;
+        for (int i = 1; i <= HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % size;
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    // 64-bit FNV-1a over the chars, computed in place so lookups do not allocate
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
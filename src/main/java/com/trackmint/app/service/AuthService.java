@@ -4,7 +4,10 @@ import com.trackmint.app.dto.*;
 import com.trackmint.app.entity.*;
 import com.trackmint.app.exception.AppException;
 import com.trackmint.app.repository.*;
+import com.trackmint.app.security.JwtClaims;
 import com.trackmint.app.security.JwtUtil;
+import com.trackmint.app.security.LoginThrottle;
+import com.trackmint.app.security.TokenRevocationIndex;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -12,6 +15,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.UUID;
 
 @Service
@@ -24,8 +28,10 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final RevokedTokenRepository revokedTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokens;
     private final EmailService emailService;
+    private final TokenRevocationIndex revocationIndex;
+    private final LoginThrottle loginThrottle;
 
 
     //constructor
@@ -35,33 +41,27 @@ public class AuthService {
                        AuthenticationManager authenticationManager,
                        RevokedTokenRepository revokedTokenRepository,
                        PasswordResetTokenRepository passwordResetTokenRepository,
-                       RefreshTokenRepository refreshTokenRepository,
-                       EmailService emailService) {
+                       RefreshTokenService refreshTokens,
+                       EmailService emailService,
+                       TokenRevocationIndex revocationIndex,
+                       LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
         this.revokedTokenRepository = revokedTokenRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokens = refreshTokens;
         this.emailService = emailService;
-    }
-
-    // Generate Refresh Token
-    private String generateRefreshToken(User user) {
-        refreshTokenRepository.deleteByUser(user);
-        String token = UUID.randomUUID().toString();
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(token);
-        refreshToken.setUser(user);
-        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(7));
-        refreshToken.setRevoked(false);
-        refreshTokenRepository.save(refreshToken);
-        return token;
+        this.revocationIndex = revocationIndex;
+        this.loginThrottle = loginThrottle;
     }
 
     // Register
-    public AuthResponseDTO register(RegisterRequestDTO dto) {
+    public AuthResponseDTO register(RegisterRequestDTO dto, String clientIp) {
+        if (!loginThrottle.tryAcquire(clientIp, dto.getEmail())) {
+            throw AppException.tooManyAttempts();
+        }
         if (userRepository.findByEmail(dto.getEmail()).isPresent()) {
             throw AppException.emailAlreadyExists();
         }
@@ -77,8 +77,8 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
         User saved = userRepository.save(user);
 
-        String accessToken = jwtUtil.generateToken(saved.getEmail());
-        String refreshToken = generateRefreshToken(saved);
+        String accessToken = jwtUtil.generateToken(saved.getId(), saved.getEmail());
+        String refreshToken = refreshTokens.issue(saved);
 
         return AuthResponseDTO.ok(
                 accessToken,
@@ -89,7 +89,10 @@ public class AuthService {
     }
 
     // Login
-    public AuthResponseDTO login(LoginRequestDTO dto) {
+    public AuthResponseDTO login(LoginRequestDTO dto, String clientIp) {
+        if (!loginThrottle.tryAcquire(clientIp, dto.getEmail())) {
+            throw AppException.tooManyAttempts();
+        }
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -100,8 +103,8 @@ public class AuthService {
         User saved = userRepository.findByEmail(dto.getEmail())
                 .orElseThrow(AppException::userNotFound);
 
-        String accessToken = jwtUtil.generateToken(saved.getEmail());
-        String refreshToken = generateRefreshToken(saved);
+        String accessToken = jwtUtil.generateToken(saved.getId(), saved.getEmail());
+        String refreshToken = refreshTokens.issue(saved);
 
         return AuthResponseDTO.ok(
                 accessToken,
@@ -113,40 +116,39 @@ public class AuthService {
 
     // Refresh Token
     public AuthResponseDTO refreshToken(RefreshTokenRequestDTO dto) {
-        RefreshToken refreshToken = refreshTokenRepository
-                .findByToken(dto.getRefreshToken())
-                .orElseThrow(AppException::invalidRefreshToken);
-
-        if (refreshToken.isRevoked()) {
-            throw AppException.tokenRevoked();
-        }
+        RefreshTokenService.Rotated rotated = refreshTokens.rotate(dto.getRefreshToken());
+        String newAccessToken = jwtUtil.generateToken(rotated.userId(), rotated.email());
 
-        if (refreshToken.isExpired()) {
-            refreshTokenRepository.delete(refreshToken);
-            throw AppException.tokenExpired();
-        }
-
-        User user = refreshToken.getUser();
-        String newAccessToken = jwtUtil.generateToken(user.getEmail());
-
-        return AuthResponseDTO.ok(newAccessToken, dto.getRefreshToken(),
-                user.getFullName(), user.getEmail(),
+        return AuthResponseDTO.ok(newAccessToken, rotated.refreshToken(),
+                rotated.fullName(), rotated.email(),
                 "Token refreshed successfully");
     }
 
     // Logout
     @Transactional
     public void logout(String accessToken, String refreshToken) {
-        RevokedToken revokedToken = new RevokedToken();
-        revokedToken.setToken(accessToken);
-        revokedToken.setRevokedAt(LocalDateTime.now());
-        revokedTokenRepository.save(revokedToken);
-
-        refreshTokenRepository.findByToken(refreshToken)
-                .ifPresent(rt -> {
-                    rt.setRevoked(true);
-                    refreshTokenRepository.save(rt);
-                });
+        // Invalid or already expired tokens are rejected by the filter anyway
+        JwtClaims claims = jwtUtil.parseToken(accessToken);
+        if (claims != null && !isRevoked(accessToken, claims)) {
+            RevokedToken revokedToken = new RevokedToken();
+            revokedToken.setToken(accessToken);
+            revokedToken.setJti(claims.jti());
+            revokedToken.setRevokedAt(LocalDateTime.now());
+            revokedToken.setExpiresAt(LocalDateTime.ofInstant(
+                    claims.expiresAt().toInstant(), ZoneId.systemDefault()));
+            revokedTokenRepository.save(revokedToken);
+            if (claims.jti() != null) {
+                revocationIndex.revoke(claims.jti(), claims.expiresAt().getTime());
+            }
+        }
+
+        refreshTokens.revoke(refreshToken);
+    }
+
+    private boolean isRevoked(String accessToken, JwtClaims claims) {
+        return claims.jti() != null
+                ? revokedTokenRepository.existsByJti(claims.jti())
+                : revokedTokenRepository.existsByToken(accessToken);
     }
 
     // Forgot Password
@@ -165,7 +167,7 @@ public class AuthService {
         resetToken.setUsed(false);
         passwordResetTokenRepository.save(resetToken);
 
-        emailService.sendPasswordResetEmail(user.getEmail(), token);
+        emailService.sendPasswordResetEmail(user.getId(), user.getEmail(), token);
         return "Password reset link sent to your email";
     }
 
@@ -0,0 +1,118 @@
+package com.trackmint.app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Deletes auth rows that can no longer matter: revocations of tokens that have expired
+// anyway, expired password reset links, and expired or revoked refresh tokens.
+// Rows go in small batches located by ctid, each its own short statement, with a pause in
+// between, so a large backlog never holds long locks or floods the WAL. Runs on one node
+// at a time through ClusterJobRunner.
+@Component
+public class AuthTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenPurgeJob.class);
+    static final String JOB = "auth-token-purge";
+
+    // Statements take (now, [cutoff,] batch size). The cutoff is for revocations written
+    // before jti support, which have no expiry and are kept for one access token lifetime.
+    private record Purge(String table, boolean withCutoff, String sql) { }
+
+    private static final List<Purge> PURGES = List.of(
+            new Purge("revoked_tokens", true,
+                    "DELETE FROM revoked_tokens WHERE ctid = ANY(ARRAY(" +
+                    "SELECT ctid FROM revoked_tokens WHERE expires_at < ? " +
+                    "UNION ALL SELECT ctid FROM revoked_tokens WHERE expires_at IS NULL AND revoked_at < ? " +
+                    "LIMIT ?))"),
+            new Purge("password_reset_tokens", false,
+                    "DELETE FROM password_reset_tokens WHERE ctid = ANY(ARRAY(" +
+                    "SELECT ctid FROM password_reset_tokens WHERE expires_at < ? LIMIT ?))"),
+            // Rotated refresh tokens are kept until they expire, so reuse can still be detected
+            new Purge("refresh_tokens", false,
+                    "DELETE FROM refresh_tokens WHERE ctid = ANY(ARRAY(" +
+                    "SELECT ctid FROM refresh_tokens WHERE expires_at < ? " +
+                    "UNION ALL SELECT ctid FROM refresh_tokens WHERE revoked AND rotated_at IS NULL " +
+                    "LIMIT ?))"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterJobRunner jobs;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration accessTokenLifetime;
+    private final Timer duration;
+
+    public AuthTokenPurgeJob(JdbcTemplate jdbcTemplate,
+                             ClusterJobRunner jobs,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.security.purge.batch-size:1000}") int batchSize,
+                             @Value("${app.security.purge.pause:100ms}") Duration pause,
+                             @Value("${app.jwt.expiration}") long accessTokenLifetimeMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobs = jobs;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.accessTokenLifetime = Duration.ofMillis(accessTokenLifetimeMillis);
+        this.duration = Timer.builder("trackmint.purge.duration")
+                .description("Time taken by a full purge of expired auth rows")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.purge.interval:1h}",
+            initialDelayString = "${app.security.purge.interval:1h}")
+    public void run() {
+        jobs.run(JOB, () -> purge(batchSize));
+    }
+
+    // Returns the number of rows deleted
+    long purge(int batchSize) {
+        long started = System.nanoTime();
+        try {
+            long total = 0;
+            for (Purge purge : PURGES) {
+                long deleted = purgeTable(purge, batchSize);
+                meterRegistry.counter("trackmint.purge.deleted", "table", purge.table()).increment(deleted);
+                total += deleted;
+            }
+            if (total > 0) {
+                log.info("Purged {} expired auth rows in {} ms",
+                        total, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            }
+            return total;
+        } finally {
+            duration.record(Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    private long purgeTable(Purge purge, int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        Object[] args = purge.withCutoff()
+                ? new Object[] {now, now.minus(accessTokenLifetime), batchSize}
+                : new Object[] {now, batchSize};
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(purge.sql(), args);
+            total += deleted;
+            if (deleted == batchSize && !pause.isZero()) {
+                try {
+                    Thread.sleep(pause.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,71 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.Budget;
+import com.trackmint.app.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.Arrays;
+import java.util.List;
+
+// Budget alerts fire when spending crosses a threshold upward, once per threshold.
+// Each budget stores the highest threshold it has been alerted for. Every change to spent
+// moves that marker to the highest threshold the new spending reaches, which also lowers
+// it when spending drops back, and only a move upward creates a notification. The marker
+// is moved with a compare-and-set, so concurrent writers never alert for the same crossing.
+@Service
+public class BudgetAlertService {
+
+    private final BudgetRepository budgetRepository;
+    private final NotificationService notificationService;
+    private final int[] thresholds;
+
+    public BudgetAlertService(BudgetRepository budgetRepository,
+                              NotificationService notificationService,
+                              @Value("${app.budget-alerts.thresholds:80,100}") int[] thresholds) {
+        this.budgetRepository = budgetRepository;
+        this.notificationService = notificationService;
+        this.thresholds = Arrays.stream(thresholds).filter(threshold -> threshold > 0).sorted().toArray();
+    }
+
+    // rows are (id, category, spent, amount, alerted_threshold) as returned by BudgetRepository.addToSpent
+    public void spentChanged(Long userId, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            spentChanged(userId, ((Number) row[0]).longValue(), (String) row[1],
+                    ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue(),
+                    ((Number) row[4]).intValue());
+        }
+    }
+
+    public void spentChanged(Long userId, Budget budget) {
+        spentChanged(userId, budget.getId(), budget.getCategory(),
+                budget.getSpent() != null ? budget.getSpent() : 0.0,
+                budget.getAmount(), budget.getAlertedThreshold());
+    }
+
+    // The threshold a budget with these values would be marked with, without alerting for it
+    public int reachedThreshold(double spent, double amount) {
+        if (amount <= 0) {
+            return 0;
+        }
+        double percentage = spent / amount * 100;
+        int reached = 0;
+        for (int threshold : thresholds) {
+            if (percentage >= threshold) {
+                reached = threshold;
+            }
+        }
+        return reached;
+    }
+
+    private void spentChanged(Long userId, Long budgetId, String category,
+                              double spent, double amount, int alerted) {
+        int reached = reachedThreshold(spent, amount);
+        if (reached == alerted
+                || budgetRepository.compareAndSetAlertedThreshold(budgetId, alerted, reached) == 0) {
+            return;
+        }
+        if (reached > alerted) {
+            notificationService.createBudgetAlert(userId, category, spent / amount * 100, spent, amount);
+        }
+    }
+}
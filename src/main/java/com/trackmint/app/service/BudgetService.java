@@ -11,28 +11,33 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import com.trackmint.app.service.NotificationService;
 
 @Service
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
-    private final NotificationService notificationService;
+    private final BudgetAlertService budgetAlerts;
+    private final UserDataVersionService dataVersions;
+    private final SummaryQueryExecutor summaryQueries;
 
 
-    public BudgetService(BudgetRepository budgetRepository, UserRepository userRepository,NotificationService notificationService) {
+    public BudgetService(BudgetRepository budgetRepository, UserRepository userRepository, BudgetAlertService budgetAlerts,
+                         UserDataVersionService dataVersions, SummaryQueryExecutor summaryQueries) {
         this.budgetRepository = budgetRepository;
         this.userRepository = userRepository;
-      this.notificationService = notificationService;
+        this.budgetAlerts = budgetAlerts;
+        this.dataVersions = dataVersions;
+        this.summaryQueries = summaryQueries;
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<BudgetResponseDTO> getUserBudgets(String email) {
-        User user = findUserByEmail(email);
+    public List<BudgetResponseDTO> getUserBudgets(Long userId) {
+        User user = getUserReference(userId);
         return budgetRepository.findByUserOrderByCategoryAsc(user)
                 .stream()
                 .map(this::convertToDTO)
@@ -40,8 +45,8 @@ public class BudgetService {
     }
 
     @Transactional(readOnly = true)
-    public List<BudgetResponseDTO> getBudgetsByMonth(String email, Integer month, Integer year) {
-        User user = findUserByEmail(email);
+    public List<BudgetResponseDTO> getBudgetsByMonth(Long userId, Integer month, Integer year) {
+        User user = getUserReference(userId);
         return budgetRepository.findByUserAndMonthAndYearOrderByCategoryAsc(user, month, year)
                 .stream()
                 .map(this::convertToDTO)
@@ -49,31 +54,40 @@ public class BudgetService {
     }
 
     @Transactional(readOnly = true)
-    public BudgetResponseDTO getBudgetById(String email, Long id) {
-        User user = findUserByEmail(email);
-        Budget budget = findBudgetById(id);
-        checkOwnership(budget, user);
-        return convertToDTO(budget);
+    public BudgetResponseDTO getBudgetById(Long userId, Long id) {
+        return convertToDTO(findBudgetById(userId, id));
     }
 
-    @Transactional(readOnly = true)
-    public BudgetSummaryDTO getBudgetSummary(String email) {
-        User user = findUserByEmail(email);
+    // The five queries are independent; SummaryQueryExecutor decides whether they run
+    // in one transaction or side by side
+    public BudgetSummaryDTO getBudgetSummary(Long userId) {
+        User user = getUserReference(userId);
 
         LocalDateTime now = LocalDateTime.now();
         Integer currentMonth = now.getMonthValue();
         Integer currentYear = now.getYear();
 
+        SummaryQueryExecutor.Fork fork = summaryQueries.fork();
+        Supplier<Double> totalBudgetQuery = fork.submit(() ->
+                budgetRepository.getTotalBudgetByUserAndMonth(user, currentMonth, currentYear));
+        Supplier<Double> totalSpentQuery = fork.submit(() ->
+                budgetRepository.getTotalSpentByUserAndMonth(user, currentMonth, currentYear));
+        Supplier<List<Budget>> overBudgetQuery = fork.submit(() -> budgetRepository.findOverBudget(user));
+        Supplier<List<Budget>> nearLimitQuery = fork.submit(() -> budgetRepository.findNearLimitBudgets(user));
+        Supplier<List<Budget>> budgetsQuery = fork.submit(() ->
+                budgetRepository.findByUserAndMonthAndYearOrderByCategoryAsc(user, currentMonth, currentYear));
+        fork.join();
+
         BudgetSummaryDTO summary = new BudgetSummaryDTO();
 
-        Double totalBudget = budgetRepository.getTotalBudgetByUserAndMonth(user, currentMonth, currentYear);
-        Double totalSpent = budgetRepository.getTotalSpentByUserAndMonth(user, currentMonth, currentYear);
+        Double totalBudget = totalBudgetQuery.get();
+        Double totalSpent = totalSpentQuery.get();
 
         summary.setTotalBudget(totalBudget != null ? totalBudget : 0.0);
         summary.setTotalSpent(totalSpent != null ? totalSpent : 0.0);
         summary.setRemaining(summary.getTotalBudget() - summary.getTotalSpent());
 
-        List<Budget> overBudget = budgetRepository.findOverBudget(user);
+        List<Budget> overBudget = overBudgetQuery.get();
         summary.setOverBudgetCount((long) overBudget.size());
 
         Double overBudgetAmount = overBudget.stream()
@@ -81,30 +95,29 @@ public class BudgetService {
                 .sum();
         summary.setOverBudget(overBudgetAmount);
 
-        List<Budget> budgets = budgetRepository.findByUserAndMonthAndYearOrderByCategoryAsc(
-                user, currentMonth, currentYear);
+        List<Budget> budgets = budgetsQuery.get();
         summary.setBudgetCount((long) budgets.size());
 
         summary.setBudgets(budgets.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList()));
 
-        summary.setAlerts(getBudgetAlerts(user));
+        summary.setAlerts(toAlerts(overBudget, nearLimitQuery.get()));
 
         return summary;
     }
 
     @Transactional(readOnly = true)
-    public List<BudgetAlertDTO> getBudgetAlerts(String email) {
-        User user = findUserByEmail(email);
+    public List<BudgetAlertDTO> getBudgetAlerts(Long userId) {
+        User user = getUserReference(userId);
         return getBudgetAlerts(user);
     }
 
 
 
     @Transactional
-    public BudgetResponseDTO createBudget(String email, BudgetRequestDTO dto) {
-        User user = findUserByEmail(email);
+    public BudgetResponseDTO createBudget(Long userId, BudgetRequestDTO dto) {
+        User user = getUserReference(userId);
 
         LocalDateTime now = LocalDateTime.now();
         Integer month = dto.getMonth() != null ? dto.getMonth() : now.getMonthValue();
@@ -124,16 +137,17 @@ public class BudgetService {
         budget.setPeriod(dto.getPeriod() != null ? dto.getPeriod() : "monthly");
         budget.setMonth(month);
         budget.setYear(year);
+        // A budget created already past a threshold needs no alert for it
+        budget.setAlertedThreshold(budgetAlerts.reachedThreshold(budget.getSpent(), budget.getAmount()));
 
         Budget saved = budgetRepository.save(budget);
+        dataVersions.changed(userId);
         return convertToDTO(saved);
     }
 
     @Transactional
-    public BudgetResponseDTO updateBudget(String email, Long id, BudgetRequestDTO dto) {
-        User user = findUserByEmail(email);
-        Budget budget = findBudgetById(id);
-        checkOwnership(budget, user);
+    public BudgetResponseDTO updateBudget(Long userId, Long id, BudgetRequestDTO dto) {
+        Budget budget = findBudgetById(userId, id);
 
         if (dto.getCategory() != null) budget.setCategory(dto.getCategory());
         if (dto.getAmount() != null) budget.setAmount(dto.getAmount());
@@ -144,75 +158,47 @@ public class BudgetService {
 
         Budget saved = budgetRepository.save(budget);
 
-        if (saved.getAmount() > 0 && saved.getSpent() > 0) {
-            double percentage = (saved.getSpent() / saved.getAmount()) * 100;
-            if (percentage >= 80) {
-                notificationService.createBudgetAlert(
-                        email,
-                        saved.getCategory(),
-                        percentage,
-                        saved.getSpent(),
-                        saved.getAmount()
-                );
-            }
-        }
+        budgetAlerts.spentChanged(userId, saved);
+        dataVersions.changed(userId);
         return convertToDTO(saved);
     }
 
     @Transactional
-    public BudgetResponseDTO updateSpent(String email, Long id, Double spent) {
-        User user = findUserByEmail(email);
-        Budget budget = findBudgetById(id);
-        checkOwnership(budget, user);
-
-        budget.setSpent(spent);
-        Budget saved = budgetRepository.save(budget);
+    public BudgetResponseDTO updateSpent(Long userId, Long id, Double spent) {
+        Budget budget = budgetRepository.updateSpentByIdAndUserId(id, userId, spent)
+                .orElseThrow(() -> new RuntimeException("Budget not found"));
 
-        if(budget.getAmount()> 0){
-            double percentage =(spent/ budget.getAmount()*100);
-            if (percentage >= 80){
-                notificationService.createBudgetAlert(
-                        email,
-                        budget.getCategory(),
-                        percentage,
-                        spent,
-                        budget.getAmount()
-                );
-            }
-        }
-        return convertToDTO(saved);
+        budgetAlerts.spentChanged(userId, budget);
+        dataVersions.changed(userId);
+        return convertToDTO(budget);
     }
 
     @Transactional
-    public void deleteBudget(String email, Long id) {
-        User user = findUserByEmail(email);
-        Budget budget = findBudgetById(id);
-        checkOwnership(budget, user);
-        budgetRepository.delete(budget);
+    public void deleteBudget(Long userId, Long id) {
+        if (budgetRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new RuntimeException("Budget not found");
+        }
+        dataVersions.changed(userId);
     }
 
 
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
     }
 
-    private Budget findBudgetById(Long id) {
-        return budgetRepository.findById(id)
+    private Budget findBudgetById(Long userId, Long id) {
+        return budgetRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Budget not found"));
     }
 
-    private void checkOwnership(Budget budget, User user) {
-        if (!budget.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized access to budget");
-        }
+    private List<BudgetAlertDTO> getBudgetAlerts(User user) {
+        return toAlerts(budgetRepository.findOverBudget(user), budgetRepository.findNearLimitBudgets(user));
     }
 
-    private List<BudgetAlertDTO> getBudgetAlerts(User user) {
+    private List<BudgetAlertDTO> toAlerts(List<Budget> overBudget, List<Budget> nearLimit) {
         List<BudgetAlertDTO> alerts = new ArrayList<>();
 
-        List<Budget> overBudget = budgetRepository.findOverBudget(user);
         for (Budget budget : overBudget) {
             BudgetAlertDTO alert = new BudgetAlertDTO();
             alert.setCategory(budget.getCategory());
@@ -228,7 +214,6 @@ public class BudgetService {
             alerts.add(alert);
         }
 
-        List<Budget> nearLimit = budgetRepository.findNearLimitBudgets(user);
         for (Budget budget : nearLimit) {
             if (budget.getSpent() <= budget.getAmount()) {
                 BudgetAlertDTO alert = new BudgetAlertDTO();
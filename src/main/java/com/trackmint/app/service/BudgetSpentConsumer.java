@@ -0,0 +1,85 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.entity.OutboxEvent;
+import com.trackmint.app.repository.BudgetRepository;
+import org.springframework.stereotype.Service;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// The budget side of transaction writes. Changes to the same budget are summed first, so a
+// batch costs one UPDATE ... RETURNING per budget however many expenses it holds. Budgets are
+// updated in (user, year, month, category) order, which keeps concurrent dispatchers from
+// deadlocking, and alerts are decided on the totals each update returns.
+@Service
+public class BudgetSpentConsumer implements OutboxConsumer {
+
+    public static final String TYPE = "BUDGET_SPENT";
+
+    // amount is signed: expenses added are positive, expenses taken back negative
+    public record Change(String category, int month, int year, double amount) { }
+
+    private record Period(Long userId, int year, int month, String category) { }
+
+    private static final Comparator<Period> LOCK_ORDER = Comparator.comparing(Period::userId)
+            .thenComparingInt(Period::year)
+            .thenComparingInt(Period::month)
+            .thenComparing(Period::category);
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetAlertService budgetAlerts;
+    private final UserDataVersionService dataVersions;
+    private final ObjectMapper objectMapper;
+
+    public BudgetSpentConsumer(BudgetRepository budgetRepository,
+                               BudgetAlertService budgetAlerts,
+                               UserDataVersionService dataVersions,
+                               ObjectMapper objectMapper) {
+        this.budgetRepository = budgetRepository;
+        this.budgetAlerts = budgetAlerts;
+        this.dataVersions = dataVersions;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        Map<Period, Double> totals = new TreeMap<>(LOCK_ORDER);
+        for (OutboxEvent event : events) {
+            Change change = read(event);
+            totals.merge(new Period(event.getUserId(), change.year(), change.month(), change.category()),
+                    change.amount(), Double::sum);
+        }
+
+        Set<Long> changedUsers = new TreeSet<>();
+        totals.forEach((period, delta) -> {
+            if (delta == 0) {
+                return;
+            }
+            List<Object[]> updated = budgetRepository.addToSpent(
+                    period.userId(), period.category(), period.month(), period.year(), delta);
+            budgetAlerts.spentChanged(period.userId(), updated);
+            if (!updated.isEmpty()) {
+                changedUsers.add(period.userId());
+            }
+        });
+        changedUsers.forEach(dataVersions::changed);
+    }
+
+    private Change read(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Change.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + TYPE + " event " + event.getId(), e);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package com.trackmint.app.service;
 import com.trackmint.app.dto.CategoryRequestDTO;
 import com.trackmint.app.dto.CategoryResponseDTO;
 import com.trackmint.app.dto.CategorySummaryDTO;
+import com.trackmint.app.dto.DashboardDeltaDTO;
 import com.trackmint.app.entity.Category;
 import com.trackmint.app.entity.User;
 import com.trackmint.app.repository.CategoryRepository;
+import com.trackmint.app.repository.UserDailyRollupRepository;
 import com.trackmint.app.repository.UserRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,36 +19,59 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
-
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+    private final UserDailyRollupRepository rollupRepository;
+    private final OutboxService outbox;
+    private final UserDataVersionService dataVersions;
+    private final LiveEventService liveEvents;
+
+    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository,
+                           UserDailyRollupRepository rollupRepository, OutboxService outbox,
+                           UserDataVersionService dataVersions, LiveEventService liveEvents) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.outbox = outbox;
+        this.dataVersions = dataVersions;
+        this.liveEvents = liveEvents;
     }
 
 
     @Transactional(readOnly = true)
-    public List<CategoryResponseDTO> getUserCategories(String email) {
-        User user = findUserByEmail(email);
+    public List<CategoryResponseDTO> getUserCategories(Long userId) {
+        User user = getUserReference(userId);
         return getUserCategories(user);
     }
 
     @Transactional(readOnly = true)
-    public CategoryResponseDTO getCategoryById(String email, Long id) {
-        User user = findUserByEmail(email);
+    public CategoryResponseDTO getCategoryById(Long userId, Long id) {
+        User user = getUserReference(userId);
         return getCategoryById(user, id);
     }
 
+    // Spending comes from the daily rollup, matched to categories by name
     @Transactional(readOnly = true)
-    public CategorySummaryDTO getCategorySummary(String email) {
-        User user = findUserByEmail(email);
+    public CategorySummaryDTO getCategorySummary(Long userId) {
+        User user = getUserReference(userId);
+        Map<String, Object[]> totals = new HashMap<>();
+        double totalSpent = 0.0;
+        for (Object[] row : rollupRepository.findCategoryTotals(userId)) {
+            totals.put((String) row[0], row);
+            totalSpent += ((Number) row[1]).doubleValue();
+        }
 
         CategorySummaryDTO summary = new CategorySummaryDTO();
-        List<CategoryResponseDTO> categories = getUserCategories(user);
+        List<CategoryResponseDTO> categories = new ArrayList<>();
+        for (Category category : categoryRepository.findByUserOrderByNameAsc(user)) {
+            Object[] total = totals.get(category.getName());
+            CategoryResponseDTO dto = convertToDTO(category);
+            dto.setTotalSpent(total != null ? ((Number) total[1]).doubleValue() : 0.0);
+            dto.setTransactionCount(total != null ? ((Number) total[2]).longValue() : 0L);
+            categories.add(dto);
+        }
+        categories.sort((a, b) -> b.getTotalSpent().compareTo(a.getTotalSpent()));
         summary.setCategories(categories);
         summary.setTotalCategories((long) categories.size());
-
-        Double totalSpent = categoryRepository.getTotalSpending(user);
-        summary.setTotalSpent(totalSpent != null ? totalSpent : 0.0);
+        summary.setTotalSpent(totalSpent);
 
         summary.setAveragePerCategory(categories.size() > 0 ?
                 summary.getTotalSpent() / categories.size() : 0.0);
@@ -72,8 +97,8 @@ public class CategoryService {
 
 
     @Transactional
-    public CategoryResponseDTO createCategory(String email, CategoryRequestDTO dto) {
-        User user = findUserByEmail(email);
+    public CategoryResponseDTO createCategory(Long userId, CategoryRequestDTO dto) {
+        User user = getUserReference(userId);
 
         if (categoryRepository.existsByUserAndName(user, dto.getName())) {
             throw new RuntimeException("Category with name '" + dto.getName() + "' already exists");
@@ -86,6 +111,7 @@ public class CategoryService {
         category.setColor(dto.getColor() != null ? dto.getColor() : "#10B981");
 
         Category saved = categoryRepository.save(category);
+        dataVersions.changed(userId);
 
         CategoryResponseDTO responseDTO = convertToDTO(saved);
         responseDTO.setTotalSpent(0.0);
@@ -95,9 +121,9 @@ public class CategoryService {
     }
 
     @Transactional
-    public CategoryResponseDTO updateCategory(String email, Long id, CategoryRequestDTO dto) {
-        User user = findUserByEmail(email);
-        Category category = findCategoryByUserAndId(user, id);
+    public CategoryResponseDTO updateCategory(Long userId, Long id, CategoryRequestDTO dto) {
+        User user = getUserReference(userId);
+        Category category = findCategoryById(userId, id);
 
         if (dto.getName() != null && !dto.getName().equals(category.getName())) {
             if (categoryRepository.existsByUserAndName(user, dto.getName())) {
@@ -110,6 +136,7 @@ public class CategoryService {
         if (dto.getColor() != null) category.setColor(dto.getColor());
 
         Category saved = categoryRepository.save(category);
+        dataVersions.changed(userId);
 
         CategoryResponseDTO responseDTO = convertToDTO(saved);
 
@@ -123,26 +150,39 @@ public class CategoryService {
     }
 
     @Transactional
-    public void deleteCategory(String email, Long id) {
-        User user = findUserByEmail(email);
-        Category category = findCategoryByUserAndId(user, id);
-        categoryRepository.delete(category);
+    public void deleteCategory(Long userId, Long id) {
+        rollupRepository.lockForWrite(userId);
+        List<Object[]> removed = categoryRepository.deleteTransactionsByCategoryIdAndUserId(id, userId);
+        if (categoryRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new RuntimeException("Category not found");
+        }
+        // Rows are (category, month, year, expense total)
+        for (Object[] row : removed) {
+            double expenses = ((Number) row[3]).doubleValue();
+            if (expenses > 0) {
+                outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change((String) row[0],
+                        ((Number) row[1]).intValue(), ((Number) row[2]).intValue(), -expenses));
+            }
+        }
+        dataVersions.changed(userId);
+        if (!removed.isEmpty()) {
+            liveEvents.publish(userId, LiveEventService.DASHBOARD, DashboardDeltaDTO.resync());
+        }
     }
 
 
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
     }
 
-    private Category findCategoryByUserAndId(User user, Long id) {
-        return categoryRepository.findByUserAndId(user, id)
+    private Category findCategoryById(Long userId, Long id) {
+        return categoryRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
     }
 
     private CategoryResponseDTO getCategoryById(User user, Long id) {
-        Category category = findCategoryByUserAndId(user, id);
+        Category category = findCategoryById(user.getId(), id);
 
         CategoryResponseDTO dto = convertToDTO(category);
 
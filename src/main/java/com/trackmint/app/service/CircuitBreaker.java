@@ -0,0 +1,58 @@
+package com.trackmint.app.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+// Stops calls to a downstream that keeps failing. After failureThreshold consecutive
+// failures it opens: calls are refused, except for one probe per openDuration. A successful
+// call closes it again; a failed probe keeps it open for another openDuration.
+public class CircuitBreaker {
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private int consecutiveFailures;
+    private Instant retryAt = Instant.MIN;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    // Whether allowRequest would let a call through, without taking the probe
+    public synchronized boolean canRequest() {
+        return consecutiveFailures < failureThreshold || !clock.instant().isBefore(retryAt);
+    }
+
+    public synchronized boolean allowRequest() {
+        if (consecutiveFailures < failureThreshold) {
+            return true;
+        }
+        Instant now = clock.instant();
+        if (now.isBefore(retryAt)) {
+            return false;
+        }
+        // This caller is the probe; everyone else waits out another window
+        retryAt = now.plus(openDuration);
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        retryAt = Instant.MIN;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (consecutiveFailures >= failureThreshold) {
+            retryAt = clock.instant().plus(openDuration);
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return consecutiveFailures >= failureThreshold;
+    }
+}
@@ -0,0 +1,117 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.JobRun;
+import com.trackmint.app.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runs @Scheduled work once per cluster instead of once per node. Every node fires the
+// schedule; the first to take the job's PostgreSQL session advisory lock runs it and the
+// rest skip. The lock is held on a connection of its own for the length of the run, so it
+// is released even if the node dies mid-run, and the job's own queries use the pool as
+// usual. A job still running on this node when its next trigger fires is skipped as well.
+// Each run is recorded in job_runs and timed per job and outcome.
+@Component
+public class ClusterJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobRunner.class);
+    private static final String LOCK_PREFIX = "trackmint.job.";
+
+    private final DataSource dataSource;
+    private final JobRunRepository jobRunRepository;
+    private final MeterRegistry meterRegistry;
+    private final String node;
+    private final Duration historyRetention;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ClusterJobRunner(DataSource dataSource,
+                            JobRunRepository jobRunRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.jobs.node:${HOSTNAME:local}}") String node,
+                            @Value("${app.jobs.history-retention:30d}") Duration historyRetention) {
+        this.dataSource = dataSource;
+        this.jobRunRepository = jobRunRepository;
+        this.meterRegistry = meterRegistry;
+        this.node = node;
+        this.historyRetention = historyRetention;
+    }
+
+    // Returns false when the job was skipped because it is already running somewhere
+    public boolean run(String job, Runnable task) {
+        if (!running.add(job)) {
+            skipped(job, "still running on this node");
+            return false;
+        }
+        try (Connection lock = dataSource.getConnection()) {
+            if (!advisoryLock(lock, "pg_try_advisory_lock", job)) {
+                skipped(job, "running on another node");
+                return false;
+            }
+            try {
+                execute(job, task);
+            } finally {
+                advisoryLock(lock, "pg_advisory_unlock", job);
+            }
+            return true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not take the lock for job " + job, e);
+        } finally {
+            running.remove(job);
+        }
+    }
+
+    private void execute(String job, Runnable task) {
+        JobRun run = new JobRun();
+        run.setJobName(job);
+        run.setNode(node);
+        run.setStatus("RUNNING");
+        run.setStartedAt(LocalDateTime.now());
+        run = jobRunRepository.save(run);
+
+        long started = System.nanoTime();
+        try {
+            task.run();
+            run.setStatus("SUCCEEDED");
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", job, e);
+            run.setStatus("FAILED");
+            run.setError(e.toString());
+        } finally {
+            Timer.builder("trackmint.jobs.duration")
+                    .tag("job", job)
+                    .tag("status", run.getStatus())
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - started));
+            run.setFinishedAt(LocalDateTime.now());
+            jobRunRepository.save(run);
+            jobRunRepository.deleteHistory(job, run.getStartedAt().minus(historyRetention));
+        }
+    }
+
+    private void skipped(String job, String reason) {
+        meterRegistry.counter("trackmint.jobs.skipped", "job", job).increment();
+        log.debug("Skipping job {}, {}", job, reason);
+    }
+
+    private static boolean advisoryLock(Connection connection, String function, String job) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(hashtext(?))")) {
+            statement.setString(1, LOCK_PREFIX + job);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Server-sent event streams, one or more per signed-in user.
+//
+// An idle stream is only an async servlet request: no thread is held. Each stream has a
+// small bounded queue; publishers only enqueue, and a virtual thread drains the queue while
+// it has events. A client that falls a full queue behind is disconnected rather than
+// buffered for, and reconnects to fetch the current state.
+//
+// A user's streams can be open on any node, so events go through PostgreSQL: publish
+// issues a NOTIFY in the caller's transaction, which the server sends only on commit, and
+// every node, the publishing one included, LISTENs on a connection of its own and delivers
+// to its local streams. If that connection drops, the node reconnects and closes its
+// streams so their clients refetch whatever they missed.
+@Service
+public class LiveEventService {
+
+    public static final String NOTIFICATION = "notification";
+    public static final String DASHBOARD = "dashboard";
+
+    static final String CHANNEL = "trackmint_live_events";
+
+    private static final Logger log = LoggerFactory.getLogger(LiveEventService.class);
+    // NOTIFY payloads are capped at 8000 bytes by the server
+    private static final int MAX_MESSAGE_BYTES = 7900;
+    private static final int POLL_MILLIS = 10_000;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration streamTimeout;
+    private final Duration reconnectDelay;
+    private volatile boolean running = true;
+    private volatile Connection listener;
+    private Thread listenerThread;
+
+    public LiveEventService(JdbcTemplate jdbcTemplate,
+                            DataSourceProperties dataSourceProperties,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.events.buffer-size:32}") int bufferSize,
+                            @Value("${app.events.stream-timeout:30m}") Duration streamTimeout,
+                            @Value("${app.events.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.streamTimeout = streamTimeout;
+        this.reconnectDelay = reconnectDelay;
+        Gauge.builder("trackmint.events.connections", connections, AtomicInteger::get)
+                .description("Open server-sent event streams")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        // Added under the map entry's lock, like close removes, so the set cannot be dropped in between
+        subscribers.compute(userId, (id, streams) -> {
+            Set<Subscriber> joined = streams == null ? ConcurrentHashMap.newKeySet() : streams;
+            joined.add(subscriber);
+            return joined;
+        });
+        connections.incrementAndGet();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Commits the response so the client knows the stream is open
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    // Connects before the first request can publish, so this node hears its own events
+    @PostConstruct
+    public void start() {
+        try {
+            listener = listen();
+        } catch (SQLException e) {
+            log.warn("Could not listen for live events yet; retrying", e);
+        }
+        listenerThread = Thread.ofPlatform().daemon().name("live-events-listener").start(this::receive);
+    }
+
+    // Sent once the caller's transaction commits, and never if it rolls back. Events too
+    // large for a NOTIFY are dropped rather than failing the write.
+    public void publish(Long userId, String name, Object payload) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("userId", userId);
+        message.put("name", name);
+        message.set("payload", objectMapper.valueToTree(payload));
+        String text;
+        try {
+            text = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Live event payload is not serializable: " + name, e);
+        }
+        if (text.getBytes(StandardCharsets.UTF_8).length > MAX_MESSAGE_BYTES) {
+            log.warn("Dropping {} event for user {}: {} characters is too large to send", name, userId, text.length());
+            return;
+        }
+        jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, text);
+            return statement.execute();
+        });
+    }
+
+    // Keeps proxies from closing idle streams and finds clients that went away
+    @Scheduled(fixedDelayString = "${app.events.heartbeat:25s}",
+            initialDelayString = "${app.events.heartbeat:25s}")
+    public void heartbeat() {
+        subscribers.values().forEach(streams ->
+                streams.forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("ping"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        closeListener();
+        subscribers.values().forEach(streams -> streams.forEach(Subscriber::close));
+        executor.shutdownNow();
+    }
+
+    private void receive() {
+        while (running) {
+            try {
+                if (listener == null) {
+                    listener = listen();
+                    // Anything sent while we were not listening is lost; make the clients refetch
+                    subscribers.values().forEach(streams -> streams.forEach(Subscriber::close));
+                }
+                PGNotification[] notifications =
+                        listener.unwrap(PGConnection.class).getNotifications(POLL_MILLIS);
+                if (notifications != null) {
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Live event listener lost its connection; reconnecting in {}", reconnectDelay, e);
+                closeListener();
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Outside the pool: the connection is held for the life of the node
+    private Connection listen() throws SQLException {
+        Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void closeListener() {
+        Connection connection = listener;
+        listener = null;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.debug("Could not close the live event listener connection", e);
+            }
+        }
+    }
+
+    private void dispatch(String text) {
+        try {
+            JsonNode message = objectMapper.readTree(text);
+            deliver(message.get("userId").asLong(), message.get("name").asText(), message.get("payload"));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed live event {}", text, e);
+        }
+    }
+
+    private void deliver(Long userId, String name, JsonNode payload) {
+        Set<Subscriber> streams = subscribers.get(userId);
+        if (streams == null) {
+            return;
+        }
+        for (Subscriber subscriber : streams) {
+            subscriber.offer(SseEmitter.event().name(name).data(payload, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.debug("Dropping slow event stream for user {}", userId);
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (Exception e) {
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            subscribers.computeIfPresent(userId, (id, streams) -> {
+                streams.remove(this);
+                return streams.isEmpty() ? null : streams;
+            });
+            connections.decrementAndGet();
+            queue.clear();
+            emitter.complete();
+        }
+    }
+}
@@ -7,8 +7,10 @@ import com.trackmint.app.entity.Notification;
 import com.trackmint.app.entity.User;
 import com.trackmint.app.repository.NotificationRepository;
 import com.trackmint.app.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -17,20 +19,39 @@ import java.util.stream.Collectors;
 @Service
 public class NotificationService {
 
+    public record WeeklySummary(Long userId, double earned, double spent) {
+        public double saved() {
+            return earned - spent;
+        }
+    }
+
+    private static final String WEEKLY_SUMMARY = "WEEKLY_SUMMARY";
+    private static final String WEEKLY_SUMMARY_TITLE = "Weekly Summary";
+    private static final String WEEKLY_SUMMARY_LINK = "/dashboard";
+
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final UserDataVersionService dataVersions;
+    private final LiveEventService liveEvents;
+    private final JdbcTemplate jdbcTemplate;
 
     public NotificationService(NotificationRepository notificationRepository,
-                               UserRepository userRepository) {
+                               UserRepository userRepository,
+                               UserDataVersionService dataVersions,
+                               LiveEventService liveEvents,
+                               JdbcTemplate jdbcTemplate) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.dataVersions = dataVersions;
+        this.liveEvents = liveEvents;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<NotificationDTO> getUserNotifications(String email) {
-        User user = findUserByEmail(email);
+    public List<NotificationDTO> getUserNotifications(Long userId) {
+        User user = getUserReference(userId);
         return notificationRepository.findByUserOrderByCreatedAtDesc(user)
                 .stream()
                 .map(this::convertToDTO)
@@ -38,8 +59,8 @@ public class NotificationService {
     }
 
     @Transactional(readOnly = true)
-    public List<NotificationDTO> getUnreadNotifications(String email) {
-        User user = findUserByEmail(email);
+    public List<NotificationDTO> getUnreadNotifications(Long userId) {
+        User user = getUserReference(userId);
         return notificationRepository
                 .findByUserAndIsReadFalseOrderByCreatedAtDesc(user)
                 .stream()
@@ -48,14 +69,14 @@ public class NotificationService {
     }
 
     @Transactional(readOnly = true)
-    public Long getUnreadCount(String email) {
-        User user = findUserByEmail(email);
+    public Long getUnreadCount(Long userId) {
+        User user = getUserReference(userId);
         return notificationRepository.countUnreadByUser(user);
     }
 
     @Transactional(readOnly = true)
-    public NotificationSummaryDTO getNotificationSummary(String email) {
-        User user = findUserByEmail(email);
+    public NotificationSummaryDTO getNotificationSummary(Long userId) {
+        User user = getUserReference(userId);
         NotificationSummaryDTO summary = new NotificationSummaryDTO();
 
 
@@ -81,8 +102,8 @@ public class NotificationService {
 
 
     @Transactional
-    public NotificationDTO createNotification(String email, NotificationRequestDTO dto) {
-        User user = findUserByEmail(email);
+    public NotificationDTO createNotification(Long userId, NotificationRequestDTO dto) {
+        User user = getUserReference(userId);
 
         Notification notification = new Notification();
         notification.setUser(user);
@@ -93,45 +114,48 @@ public class NotificationService {
         notification.setRead(false);
 
         Notification saved = notificationRepository.save(notification);
-        return convertToDTO(saved);
+        dataVersions.changed(userId);
+        NotificationDTO created = convertToDTO(saved);
+        liveEvents.publish(userId, LiveEventService.NOTIFICATION, created);
+        return created;
     }
 
     @Transactional
-    public NotificationDTO markAsRead(String email, Long id) {
-        User user = findUserByEmail(email);
-        Notification notification = findNotificationById(id);
-        checkOwnership(notification, user);
+    public NotificationDTO markAsRead(Long userId, Long id) {
+        Notification notification = findNotificationById(userId, id);
         notification.setRead(true);
+        dataVersions.changed(userId);
         return convertToDTO(notificationRepository.save(notification));
     }
 
     @Transactional
-    public void markAllAsRead(String email) {
-        User user = findUserByEmail(email);
+    public void markAllAsRead(Long userId) {
+        User user = getUserReference(userId);
         notificationRepository.markAllAsRead(user);
+        dataVersions.changed(userId);
     }
 
     @Transactional
-    public void deleteNotification(String email, Long id) {
-        User user = findUserByEmail(email);
-        Notification notification = findNotificationById(id);
-        checkOwnership(notification, user);
-        notificationRepository.delete(notification);
+    public void deleteNotification(Long userId, Long id) {
+        if (notificationRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new RuntimeException("Notification not found");
+        }
+        dataVersions.changed(userId);
     }
 
     @Transactional
-    public void deleteOldNotifications(String email) {
-        User user = findUserByEmail(email);
+    public void deleteOldNotifications(Long userId) {
+        User user = getUserReference(userId);
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
         notificationRepository.deleteOldReadNotifications(user, thirtyDaysAgo);
+        dataVersions.changed(userId);
     }
 
 
 
-    public void createBudgetAlert(String email, String category,
+    // Callers decide when an alert is due; see BudgetAlertService
+    public void createBudgetAlert(Long userId, String category,
                                   double percentage, double spent, double budget) {
-        if (percentage < 80) return;
-
         String title = "Budget Alert: " + category;
         String type;
         String message;
@@ -151,10 +175,10 @@ public class NotificationService {
         dto.setMessage(message);
         dto.setType(type);
         dto.setLink("/budgets");
-        createNotification(email, dto);
+        createNotification(userId, dto);
     }
 
-    public void createLargeTransactionAlert(String email, String description,
+    public void createLargeTransactionAlert(Long userId, String description,
                                             double amount, String type) {
         String title = "Large " + (type.equals("INCOME") ? "Income" : "Expense");
         String message = String.format("%s of ksh %.2f: %s",
@@ -166,41 +190,59 @@ public class NotificationService {
         dto.setMessage(message);
         dto.setType("LARGE_TRANSACTION");
         dto.setLink("/transactions");
-        createNotification(email, dto);
+        createNotification(userId, dto);
     }
 
-    public void createWeeklySummary(String email, double spent,
+    public void createWeeklySummary(Long userId, double spent,
                                     double earned, double saved) {
-        String message = String.format(
+        NotificationRequestDTO dto = new NotificationRequestDTO();
+        dto.setTitle(WEEKLY_SUMMARY_TITLE);
+        dto.setMessage(weeklySummaryMessage(spent, earned, saved));
+        dto.setType(WEEKLY_SUMMARY);
+        dto.setLink(WEEKLY_SUMMARY_LINK);
+        createNotification(userId, dto);
+    }
+
+    // The weekly job's path: one JDBC batch for the notifications and one statement for the
+    // data versions. These are not pushed live; a send to every user at once would hit
+    // every open stream together, and clients see them on their next refresh.
+    @Transactional
+    public void createWeeklySummaries(List<WeeklySummary> summaries) {
+        if (summaries.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO notifications (user_id, title, message, type, is_read, created_at, link) " +
+                "VALUES (?, ?, ?, ?, false, ?, ?)",
+                summaries, summaries.size(), (statement, summary) -> {
+                    statement.setLong(1, summary.userId());
+                    statement.setString(2, WEEKLY_SUMMARY_TITLE);
+                    statement.setString(3, weeklySummaryMessage(summary.spent(), summary.earned(), summary.saved()));
+                    statement.setString(4, WEEKLY_SUMMARY);
+                    statement.setTimestamp(5, Timestamp.valueOf(now));
+                    statement.setString(6, WEEKLY_SUMMARY_LINK);
+                });
+        dataVersions.changed(summaries.stream().map(WeeklySummary::userId).toList());
+    }
+
+    private static String weeklySummaryMessage(double spent, double earned, double saved) {
+        return String.format(
                 "This week: ksh %.2f earned, ksh %.2f spent, ksh %.2f saved",
                 earned, spent, saved);
-
-        NotificationRequestDTO dto = new NotificationRequestDTO();
-        dto.setTitle("Weekly Summary");
-        dto.setMessage(message);
-        dto.setType("WEEKLY_SUMMARY");
-        dto.setLink("/dashboard");
-        createNotification(email, dto);
     }
 
 
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    private User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
     }
 
-    private Notification findNotificationById(Long id) {
-        return notificationRepository.findById(id)
+    private Notification findNotificationById(Long userId, Long id) {
+        return notificationRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
     }
 
-    private void checkOwnership(Notification notification, User user) {
-        if (!notification.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Not authorized");
-        }
-    }
-
     private NotificationDTO convertToDTO(Notification notification) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(notification.getId());
@@ -0,0 +1,40 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.OutboxEvent;
+import java.time.Duration;
+import java.util.List;
+
+// Carries out one type of outbox event. consume runs in the dispatcher's transaction, the
+// same one that deletes the events, so it must not commit or swallow failures on its own.
+// Consumers that are not transactional are called with no transaction open instead.
+public interface OutboxConsumer {
+
+    String type();
+
+    void consume(List<OutboxEvent> events);
+
+    // Largest batch handed to consume. Consumers with effects outside the database use 1,
+    // since a failure rolls back the whole batch and every event in it is delivered again.
+    default int batchSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    // False while the consumer cannot make progress, e.g. its downstream is known to be down.
+    // Its events are then left alone instead of being claimed only to fail.
+    default boolean ready() {
+        return true;
+    }
+
+    // False for consumers whose effects live outside the database, such as HTTP calls. Their
+    // events are leased in one short transaction and deleted in another once consume returns,
+    // so a slow downstream never holds a connection or row locks. An event whose lease runs
+    // out before it is deleted, e.g. because the node died, is delivered again.
+    default boolean transactional() {
+        return true;
+    }
+
+    // Events waiting longer than this are dropped undelivered; null keeps them until delivered
+    default Duration maxAge() {
+        return null;
+    }
+}
@@ -0,0 +1,249 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.OutboxEvent;
+import com.trackmint.app.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Delivers outbox events to their consumers.
+//
+// Workers on virtual threads claim the oldest due events of each type with FOR UPDATE SKIP
+// LOCKED, hand them to the type's consumer as one batch, and delete them in the same
+// transaction. An event is therefore applied exactly once per commit, and delivered again
+// only when that transaction rolled back and applied nothing. When a batch fails, its events
+// are retried one per transaction, so a bad event only holds back itself. Each failure moves
+// the event back by an exponentially growing backoff; after max-attempts failures it is given
+// up on and stays in the table for inspection.
+//
+// Consumers that are not transactional, such as email, get each leased event outside any
+// transaction and it is deleted afterwards, so their deliveries are at least once. Events
+// older than their consumer's max age are dropped instead of delivered late.
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final List<OutboxConsumer> consumers;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer lag;
+    private final Counter failures;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration pollInterval;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration lease;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile boolean running = true;
+
+    public OutboxDispatcher(OutboxEventRepository outboxRepository,
+                            List<OutboxConsumer> consumers,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.outbox.workers:2}") int workers,
+                            @Value("${app.outbox.batch-size:200}") int batchSize,
+                            @Value("${app.outbox.max-attempts:10}") int maxAttempts,
+                            @Value("${app.outbox.poll-interval:1s}") Duration pollInterval,
+                            @Value("${app.outbox.retry-backoff:1s}") Duration retryBackoff,
+                            @Value("${app.outbox.max-retry-backoff:10m}") Duration maxRetryBackoff,
+                            @Value("${app.outbox.lease:1m}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.consumers = consumers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lag = Timer.builder("trackmint.outbox.lag")
+                .description("Time from an outbox event's write to its delivery")
+                .register(meterRegistry);
+        this.failures = Counter.builder("trackmint.outbox.failures")
+                .description("Outbox deliveries that failed and will be retried")
+                .register(meterRegistry);
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+        this.pollInterval = pollInterval;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.lease = lease;
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    // Called after a publishing transaction commits
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // A full batch means more are probably waiting
+                if (!dispatchAll() && wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS)) {
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Outbox dispatch failed", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // True when some type filled its batch
+    private boolean dispatchAll() {
+        boolean more = false;
+        for (OutboxConsumer consumer : consumers) {
+            if (consumer.maxAge() != null) {
+                dropExpired(consumer);
+            }
+            if (consumer.ready()) {
+                int limit = Math.min(batchSize, consumer.batchSize());
+                int dispatched = consumer.transactional()
+                        ? dispatchBatch(consumer, limit)
+                        : dispatchLeased(consumer, limit);
+                more |= dispatched == limit;
+            }
+        }
+        return more;
+    }
+
+    private int dispatchBatch(OutboxConsumer consumer, int limit) {
+        List<Long> claimed = new ArrayList<>();
+        List<OutboxEvent> delivered;
+        try {
+            delivered = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxRepository.claimBatch(
+                        consumer.type(), LocalDateTime.now(), maxAttempts, limit);
+                events.forEach(event -> claimed.add(event.getId()));
+                deliver(consumer, events);
+                return events;
+            });
+        } catch (RuntimeException e) {
+            if (claimed.isEmpty()) {
+                throw e;
+            }
+            if (claimed.size() == 1) {
+                failed(claimed.get(0), e);
+                return 1;
+            }
+            log.warn("Outbox batch of {} {} events failed, retrying them one at a time",
+                    claimed.size(), consumer.type(), e);
+            claimed.forEach(id -> dispatchOne(consumer, id));
+            return claimed.size();
+        }
+        recordDelivered(delivered);
+        return delivered.size();
+    }
+
+    // Nothing is held while the consumer runs; each event is deleted, or counted as failed,
+    // in its own short transaction afterwards
+    private int dispatchLeased(OutboxConsumer consumer, int limit) {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> outboxRepository.leaseBatch(
+                consumer.type(), LocalDateTime.now(), maxAttempts, limit, lease.toMillis() / 1000.0));
+        LocalDateTime cutoff = consumer.maxAge() != null ? LocalDateTime.now().minus(consumer.maxAge()) : null;
+        for (OutboxEvent event : events) {
+            // Written after this round's dropExpired ran, but already too old to deliver
+            if (cutoff != null && event.getCreatedAt().isBefore(cutoff)) {
+                outboxRepository.deleteAllByIdInBatch(List.of(event.getId()));
+                recordExpired(consumer, 1);
+                continue;
+            }
+            try {
+                consumer.consume(List.of(event));
+            } catch (RuntimeException e) {
+                failed(event.getId(), e);
+                continue;
+            }
+            outboxRepository.deleteAllByIdInBatch(List.of(event.getId()));
+            recordDelivered(List.of(event));
+        }
+        return events.size();
+    }
+
+    private void dropExpired(OutboxConsumer consumer) {
+        int dropped = outboxRepository.deleteCreatedBefore(consumer.type(), LocalDateTime.now().minus(consumer.maxAge()));
+        if (dropped > 0) {
+            recordExpired(consumer, dropped);
+        }
+    }
+
+    private void recordExpired(OutboxConsumer consumer, int dropped) {
+        meterRegistry.counter("trackmint.outbox.expired", "type", consumer.type()).increment(dropped);
+        log.warn("Dropped {} {} events older than {}", dropped, consumer.type(), consumer.maxAge());
+    }
+
+    private void dispatchOne(OutboxConsumer consumer, Long id) {
+        try {
+            List<OutboxEvent> delivered = transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxRepository.claim(id, maxAttempts);
+                deliver(consumer, events);
+                return events;
+            });
+            recordDelivered(delivered);
+        } catch (RuntimeException e) {
+            failed(id, e);
+        }
+    }
+
+    private void failed(Long id, RuntimeException e) {
+        failures.increment();
+        outboxRepository.markFailed(id, LocalDateTime.now(),
+                retryBackoff.toMillis() / 1000.0, maxRetryBackoff.toMillis() / 1000.0);
+        log.error("Outbox event {} failed", id, e);
+    }
+
+    private void deliver(OutboxConsumer consumer, List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        consumer.consume(events);
+        outboxRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+    }
+
+    private void recordDelivered(List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreatedAt(), now));
+            meterRegistry.counter("trackmint.outbox.delivered", "type", event.getType()).increment();
+        }
+    }
+}
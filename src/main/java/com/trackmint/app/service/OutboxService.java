@@ -0,0 +1,50 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.entity.OutboxEvent;
+import com.trackmint.app.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxRepository,
+                         OutboxDispatcher dispatcher,
+                         ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    // Inserted in the caller's transaction, so the event exists exactly when the write does.
+    // The dispatcher is woken once that transaction commits instead of waiting for its next poll.
+    public void publish(Long userId, String type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setType(type);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable: " + type, e);
+        }
+        outboxRepository.save(event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        } else {
+            dispatcher.wakeUp();
+        }
+    }
+}
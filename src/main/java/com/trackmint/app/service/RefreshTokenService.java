@@ -0,0 +1,146 @@
+package com.trackmint.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trackmint.app.entity.RefreshToken;
+import com.trackmint.app.entity.User;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.repository.RefreshTokenRepository;
+import com.trackmint.app.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+// Refresh tokens are single use: each refresh marks the presented token rotated and issues
+// its successor in the same family. Presenting a rotated token again means it was copied,
+// so the whole family is revoked and both holders have to sign in again.
+// Clients commonly fire the same refresh twice (parallel tabs, retries), so the result of
+// each rotation is kept for a short grace period and handed back to repeats of the same
+// token instead of treating them as reuse. A kept result is only handed back while its
+// family is still live, so logout or reuse detection on any node ends the grace at once.
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    public record Rotated(Long userId, String email, String fullName, String refreshToken) { }
+
+    private record Recent(UUID familyId, Rotated rotated) { }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Cache<String, Recent> recentRotations;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               @Value("${app.security.refresh-token.ttl:7d}") Duration ttl,
+                               @Value("${app.security.refresh-token.reuse-grace:10s}") Duration reuseGrace,
+                               @Value("${app.security.refresh-token.cache-size:10000}") long cacheSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+        this.recentRotations = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(reuseGrace)
+                .build();
+    }
+
+    // Starts a new family, one per login
+    public String issue(User user) {
+        String token = newToken();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(token));
+        refreshToken.setFamilyId(UUID.randomUUID());
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(ttl));
+        refreshToken.setRevoked(false);
+        refreshTokenRepository.save(refreshToken);
+        return token;
+    }
+
+    public Rotated rotate(String token) {
+        if (token == null || token.isBlank()) {
+            throw AppException.invalidRefreshToken();
+        }
+        byte[] hash = hash(token);
+        String key = HexFormat.of().formatHex(hash);
+        Recent recent = recentRotations.getIfPresent(key);
+        if (recent != null) {
+            if (refreshTokenRepository.isFamilyRevoked(recent.familyId())) {
+                forget(recent.familyId());
+                throw AppException.tokenRevoked();
+            }
+            return recent.rotated();
+        }
+        // Concurrent refreshes with the same token wait for one rotation and share it
+        return recentRotations.get(key, k -> rotateNow(hash)).rotated();
+    }
+
+    // Logout ends the session the token belongs to
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(token)).ifPresent(refreshToken -> {
+            refreshTokenRepository.revokeFamily(refreshToken.getFamilyId());
+            forget(refreshToken.getFamilyId());
+        });
+    }
+
+    private void forget(UUID familyId) {
+        recentRotations.asMap().values().removeIf(recent -> recent.familyId().equals(familyId));
+    }
+
+    private Recent rotateNow(byte[] hash) {
+        String next = newToken();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rotated = refreshTokenRepository.rotate(hash, hash(next), now, now.plus(ttl));
+        if (!rotated.isEmpty()) {
+            Long userId = ((Number) rotated.get(0)[0]).longValue();
+            User user = userRepository.findById(userId).orElseThrow(AppException::userNotFound);
+            return new Recent((UUID) rotated.get(0)[1],
+                    new Rotated(user.getId(), user.getEmail(), user.getFullName(), next));
+        }
+
+        RefreshToken presented = refreshTokenRepository.findByTokenHash(hash)
+                .orElseThrow(AppException::invalidRefreshToken);
+        if (presented.isRevoked()) {
+            throw AppException.tokenRevoked();
+        }
+        if (presented.getRotatedAt() != null) {
+            refreshTokenRepository.revokeFamily(presented.getFamilyId());
+            forget(presented.getFamilyId());
+            log.warn("Refresh token reused after rotation, revoked token family {} of user {}",
+                    presented.getFamilyId(), presented.getUser().getId());
+            throw AppException.tokenRevoked();
+        }
+        throw AppException.tokenExpired();
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
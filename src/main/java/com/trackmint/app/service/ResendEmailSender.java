@@ -0,0 +1,150 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.entity.OutboxEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Sends queued emails through the Resend HTTP API, one per outbox delivery, so a failed send
+// never resends others. Every send shares one HttpClient and its connection pool, and is
+// bounded by the connect and read timeouts, and runs outside the dispatcher's transactions.
+// Failures are retried by the outbox with exponential backoff; while the circuit breaker is
+// open, emails stay queued untouched. Emails still queued after max-age are dropped, since
+// the reset links they carry have expired by then. Without an API key nothing is sent at all,
+// and queued emails are left to expire.
+@Component
+public class ResendEmailSender implements OutboxConsumer {
+
+    public static final String TYPE = "EMAIL";
+
+    public record EmailMessage(String to, String subject, String html) { }
+
+    private static final Logger log = LoggerFactory.getLogger(ResendEmailSender.class);
+
+    private final RestClient restClient;
+    private final boolean enabled;
+    private final CircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper;
+    private final String from;
+    private final Duration maxAge;
+
+    public ResendEmailSender(ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${resend.api.key:}") String apiKey,
+                             @Value("${resend.base-url:https://api.resend.com}") String baseUrl,
+                             @Value("${resend.from:TrackMint <onboarding@resend.dev>}") String from,
+                             @Value("${resend.connect-timeout:5s}") Duration connectTimeout,
+                             @Value("${resend.read-timeout:10s}") Duration readTimeout,
+                             @Value("${resend.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                             @Value("${resend.circuit-breaker.open-duration:30s}") Duration openDuration,
+                             @Value("${resend.max-age:15m}") Duration maxAge) {
+        this.enabled = !apiKey.isBlank();
+        if (!enabled) {
+            log.warn("resend.api.key is not set; emails will not be sent");
+        }
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(connectTimeout).build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .build();
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration, Clock.systemUTC());
+        this.objectMapper = objectMapper;
+        this.from = from;
+        this.maxAge = maxAge;
+        Gauge.builder("trackmint.email.circuit.open", circuitBreaker, breaker -> breaker.isOpen() ? 1 : 0)
+                .description("1 while email sending is suspended after repeated failures")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public int batchSize() {
+        return 1;
+    }
+
+    @Override
+    public boolean ready() {
+        // Only a check: the dispatcher asks on every tick, queued emails or not, and the
+        // half-open probe is taken by the send itself
+        return enabled && circuitBreaker.canRequest();
+    }
+
+    @Override
+    public boolean transactional() {
+        return false;
+    }
+
+    @Override
+    public Duration maxAge() {
+        return maxAge;
+    }
+
+    @Override
+    public void consume(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            send(event.getId(), read(event));
+        }
+    }
+
+    private void send(Long id, EmailMessage message) {
+        if (!circuitBreaker.allowRequest()) {
+            // Another worker took this window's probe; the outbox retries the email later
+            throw new IllegalStateException("Email sending is paused after repeated Resend failures");
+        }
+        try {
+            restClient.post()
+                    .uri("/emails")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(
+                            "from", from,
+                            "to", message.to(),
+                            "subject", message.subject(),
+                            "html", message.html()))
+                    .retrieve()
+                    .toBodilessEntity();
+            circuitBreaker.recordSuccess();
+        } catch (HttpClientErrorException e) {
+            int status = e.getStatusCode().value();
+            if (status != 400 && status != 422) {
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+            // Resend is up but rejects this email; sending it again cannot succeed
+            circuitBreaker.recordSuccess();
+            log.error("Resend rejected email {} with {}: {}", id, status, e.getResponseBodyAsString());
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            throw e;
+        }
+    }
+
+    private EmailMessage read(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), EmailMessage.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + TYPE + " event " + event.getId(), e);
+        }
+    }
+}
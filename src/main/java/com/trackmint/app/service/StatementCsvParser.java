@@ -0,0 +1,200 @@
+package com.trackmint.app.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Reads a bank statement CSV one record at a time and normalizes each row into the
+// transactions shape. Only the current record is held in memory.
+//
+// Required columns: date, description, amount. Optional: category, type.
+// A signed amount decides the type when there is no type column (negative = EXPENSE).
+public class StatementCsvParser {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final String DEFAULT_CATEGORY = "Uncategorized";
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final Reader reader;
+    private final int dateColumn;
+    private final int descriptionColumn;
+    private final int amountColumn;
+    private final int categoryColumn;
+    private final int typeColumn;
+    private long lineNumber = 1;
+    private int next = -2;
+
+    public record Row(long lineNumber, LocalDateTime date, String description,
+                      String category, double amount, String type) {
+    }
+
+    public StatementCsvParser(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        List<String> names = header.stream()
+                .map(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .toList();
+        this.dateColumn = requiredColumn(names, "date");
+        this.descriptionColumn = requiredColumn(names, "description");
+        this.amountColumn = requiredColumn(names, "amount");
+        this.categoryColumn = names.indexOf("category");
+        this.typeColumn = names.indexOf("type");
+    }
+
+    // Returns the next row, or null at the end of the file. A malformed row throws
+    // IllegalArgumentException; parsing can continue with the following row.
+    public Row next() throws IOException {
+        while (true) {
+            long line = lineNumber;
+            List<String> record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() > 1 || !record.get(0).isBlank()) {
+                return normalize(line, record);
+            }
+        }
+    }
+
+    private Row normalize(long line, List<String> record) {
+        String description = truncate(field(record, descriptionColumn));
+        if (description.isEmpty()) {
+            throw new IllegalArgumentException("Line " + line + ": description is required");
+        }
+        LocalDateTime date = parseDate(line, field(record, dateColumn));
+        BigDecimal amount = parseAmount(line, field(record, amountColumn));
+        if (amount.signum() == 0) {
+            throw new IllegalArgumentException("Line " + line + ": amount must not be zero");
+        }
+
+        String type = field(record, typeColumn).toUpperCase(Locale.ROOT);
+        if (type.isEmpty()) {
+            type = amount.signum() < 0 ? "EXPENSE" : "INCOME";
+        } else if (!type.equals("EXPENSE") && !type.equals("INCOME")) {
+            throw new IllegalArgumentException("Line " + line + ": type must be INCOME or EXPENSE");
+        }
+
+        String category = truncate(field(record, categoryColumn));
+        return new Row(line, date, description,
+                category.isEmpty() ? DEFAULT_CATEGORY : category,
+                amount.abs().doubleValue(), type);
+    }
+
+    private static LocalDateTime parseDate(long line, String value) {
+        try {
+            if (value.contains("/")) {
+                return LocalDate.parse(value, DAY_FIRST).atStartOfDay();
+            }
+            if (value.contains("T")) {
+                return LocalDateTime.parse(value);
+            }
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Line " + line + ": unreadable date '" + value + "'");
+        }
+    }
+
+    // Accepts "1,234.50", "-12.00", "(12.00)" and a leading currency code or symbol
+    private static BigDecimal parseAmount(long line, String value) {
+        String cleaned = value.replaceAll("[^0-9.()\\-]", "");
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+        if (negative) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1);
+        }
+        try {
+            BigDecimal amount = new BigDecimal(cleaned);
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Line " + line + ": unreadable amount '" + value + "'");
+        }
+    }
+
+    private static String field(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column).trim() : "";
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_TEXT_LENGTH ? value.substring(0, MAX_TEXT_LENGTH) : value;
+    }
+
+    private static int requiredColumn(List<String> names, String name) {
+        int index = names.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Missing required column: " + name);
+        }
+        return index;
+    }
+
+    // RFC 4180 record: quoted fields may contain commas, doubled quotes and line breaks
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && peek() == '\n') {
+                // the \n ends the record on the next pass
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c == '\n') {
+                    lineNumber++;
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (next != -2) {
+            int c = next;
+            next = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,522 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.DashboardDeltaDTO;
+import com.trackmint.app.dto.StatementImportDTO;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.repository.UserDailyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Imports bank statement CSV files in the background.
+//
+// Two stages run concurrently: a parser reads and validates the file in chunks, and a
+// loader streams the normalized rows into a temporary staging table with COPY. Chunks
+// pass through a small bounded queue, so memory use does not grow with file size.
+// One INSERT ... SELECT then moves the new rows into transactions, skipping rows that
+// are already there, and queues the expense totals for the budgets through the outbox.
+//
+// The job runs on the node that took the upload, but its state lives in statement_imports,
+// rewritten after every chunk, so status polls can land on any node. Rows of jobs still
+// running here are touched on a heartbeat; if the node stops, its jobs stop heartbeating
+// and are reported as failed instead of staying RUNNING forever.
+@Service
+public class StatementImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementImportService.class);
+    private static final int CHUNK_SIZE = 1000;
+    private static final int QUEUED_CHUNKS = 8;
+    private static final int MAX_REPORTED_REJECTIONS = 20;
+    private static final List<StatementCsvParser.Row> END = List.of();
+    static final String PURGE_JOB = "statement-import-purge";
+    static final String LOST = "Import was lost when the server running it stopped";
+
+    private static final String INSERT_JOB =
+            "INSERT INTO statement_imports (id, user_id, file_name, node, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'QUEUED', ?, ?)";
+
+    private static final String SAVE_JOB =
+            "UPDATE statement_imports SET status = ?, rows_read = ?, rows_rejected = ?, rows_staged = ?, " +
+            "rows_imported = ?, rejections = ?, started_at = ?, finished_at = ?, error = ?, updated_at = ? " +
+            "WHERE id = ?";
+
+    private static final String MARK_LOST =
+            "UPDATE statement_imports SET status = 'FAILED', error = ?, finished_at = ?, updated_at = ? " +
+            "WHERE id = ? AND status IN ('QUEUED', 'RUNNING') AND updated_at < ?";
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE transaction_import_staging (" +
+            "line_number bigint, date timestamp(6), description varchar(255), " +
+            "category varchar(255), amount float8, type varchar(255)) ON COMMIT DROP";
+
+    private static final String COPY_STAGING =
+            "COPY transaction_import_staging (line_number, date, description, category, amount, type) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    // Budgets are not touched here: one BUDGET_SPENT outbox event per (category, month)
+    // hands the change to BudgetSpentConsumer, which applies it and decides alerts like it
+    // does for every other write.
+    //
+    // Ids come from transactions_seq in blocks of 50, matching the pooled optimizer Hibernate
+    // uses for the same sequence: a nextval of v reserves v - 49 .. v.
+    private static final String MERGE_STAGING = """
+            WITH fresh AS (
+                SELECT s.*, row_number() OVER (ORDER BY s.line_number) AS rn
+                FROM transaction_import_staging s
+                WHERE NOT EXISTS (
+                    SELECT 1 FROM transactions t
+                    WHERE t.user_id = ? AND t.date = s.date AND t.amount = s.amount
+                      AND t.type = s.type AND t.description = s.description)
+            ),
+            blocks AS MATERIALIZED (
+                SELECT nextval('transactions_seq') AS hi
+                FROM generate_series(1, (SELECT count(*) FROM fresh) / 50 + 2)
+            ),
+            ids AS (
+                SELECT id, row_number() OVER (ORDER BY id) AS rn
+                FROM (SELECT hi - 49 + g AS id FROM blocks, generate_series(0, 49) g) reserved
+                WHERE id > 0
+            ),
+            inserted AS (
+                INSERT INTO transactions (id, user_id, date, description, category, amount, type)
+                SELECT ids.id, ?, f.date, f.description, f.category, f.amount, f.type
+                FROM fresh f JOIN ids ON ids.rn = f.rn
+                RETURNING user_id, date, category, amount, type
+            ),
+            rollup AS (
+                INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count)
+                SELECT user_id, CAST(date AS date), category, type, SUM(amount), COUNT(*)
+                FROM inserted GROUP BY 1, 2, 3, 4
+                ON CONFLICT (user_id, day, category, type) DO UPDATE SET
+                    sum = user_daily_rollup.sum + EXCLUDED.sum,
+                    count = user_daily_rollup.count + EXCLUDED.count
+            ),
+            spent AS (
+                INSERT INTO outbox_events (user_id, type, payload, created_at, available_at)
+                SELECT ?, ?, json_build_object('category', category, 'month', month,
+                                               'year', year, 'amount', total)::text, ?, ?
+                FROM (SELECT category,
+                             EXTRACT(MONTH FROM date)::int AS month,
+                             EXTRACT(YEAR FROM date)::int AS year,
+                             SUM(ABS(amount)) AS total
+                      FROM inserted WHERE type = 'EXPENSE'
+                      GROUP BY 1, 2, 3) e
+            ),
+            version AS (
+                INSERT INTO user_data_versions (user_id, version) VALUES (?, 1)
+                ON CONFLICT (user_id) DO UPDATE SET version = user_data_versions.version + 1
+            )
+            SELECT count(*) FROM inserted
+            """;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final LiveEventService liveEvents;
+    private final OutboxDispatcher outboxDispatcher;
+    private final ClusterJobRunner jobs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore runningJobs;
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final String node;
+    private final Duration jobRetention;
+    private final Duration staleAfter;
+
+    public StatementImportService(DataSource dataSource,
+                                  JdbcTemplate jdbcTemplate,
+                                  LiveEventService liveEvents,
+                                  OutboxDispatcher outboxDispatcher,
+                                  ClusterJobRunner jobs,
+                                  @Value("${app.jobs.node:${HOSTNAME:local}}") String node,
+                                  @Value("${app.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                  @Value("${app.import.job-retention:1h}") Duration jobRetention,
+                                  @Value("${app.import.stale-after:1m}") Duration staleAfter) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.liveEvents = liveEvents;
+        this.outboxDispatcher = outboxDispatcher;
+        this.jobs = jobs;
+        this.node = node;
+        this.runningJobs = new Semaphore(maxConcurrentJobs);
+        this.jobRetention = jobRetention;
+        this.staleAfter = staleAfter;
+    }
+
+    public StatementImportDTO startImport(Long userId, MultipartFile file) {
+        if (file.isEmpty()) {
+            throw AppException.emptyImportFile();
+        }
+        // The upload is deleted when the request ends, so keep our own copy for the job
+        Path path;
+        try {
+            path = Files.createTempFile("statement-import-", ".csv");
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, file.getOriginalFilename());
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(INSERT_JOB, job.id, userId, job.fileName, node, now, now);
+        active.add(job.id);
+        executor.submit(() -> run(job, path));
+        return toDTO(job);
+    }
+
+    public StatementImportDTO getImport(Long userId, String jobId) {
+        StatementImportDTO dto = find(userId, jobId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(staleAfter);
+        if ((dto.getStatus().equals("QUEUED") || dto.getStatus().equals("RUNNING"))
+                && dto.getUpdatedAt().isBefore(cutoff)
+                && jdbcTemplate.update(MARK_LOST, LOST, now, now, jobId, cutoff) > 0) {
+            log.warn("Import {} for user {} stopped heartbeating; marked failed", jobId, userId);
+            dto = find(userId, jobId);
+        }
+        return dto;
+    }
+
+    // Keeps the rows of the jobs running on this node from looking abandoned
+    @Scheduled(fixedDelayString = "${app.import.heartbeat:15s}")
+    public void heartbeat() {
+        if (active.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE statement_imports SET updated_at = ? WHERE id = ANY(?)",
+                LocalDateTime.now(), active.toArray(new String[0]));
+    }
+
+    @Scheduled(fixedDelayString = "${app.import.job-retention:1h}",
+            initialDelayString = "${app.import.job-retention:1h}")
+    public void purge() {
+        jobs.run(PURGE_JOB, () -> jdbcTemplate.update(
+                "DELETE FROM statement_imports WHERE updated_at < ?", LocalDateTime.now().minus(jobRetention)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path path) {
+        try {
+            runningJobs.acquire();
+            try {
+                execute(job, path);
+            } finally {
+                runningJobs.release();
+            }
+        } catch (InterruptedException e) {
+            job.fail("Import was interrupted");
+            save(job);
+            Thread.currentThread().interrupt();
+        } finally {
+            active.remove(job.id);
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", path, e);
+            }
+        }
+    }
+
+    private void execute(ImportJob job, Path path) {
+        job.start();
+        save(job);
+        try {
+            long imported = load(job, path);
+            if (imported > 0) {
+                liveEvents.publish(job.userId, LiveEventService.DASHBOARD, DashboardDeltaDTO.resync());
+            }
+            job.complete(imported);
+            save(job);
+            log.info("Import {} for user {}: {} rows read, {} imported, {} rejected in {} ms",
+                    job.id, job.userId, job.rowsRead.get(), imported, job.rowsRejected.get(),
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            job.fail(cause.getMessage());
+            save(job);
+            log.warn("Import {} for user {} failed", job.id, job.userId, cause);
+        }
+    }
+
+    private long load(ImportJob job, Path path) throws Exception {
+        BlockingQueue<List<StatementCsvParser.Row>> queue = new ArrayBlockingQueue<>(QUEUED_CHUNKS);
+        Future<?> parser = executor.submit(() -> {
+            parse(job, path, queue);
+            return null;
+        });
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING);
+                }
+                copyIntoStaging(job, connection, queue);
+                // Surfaces file-level errors such as a missing header
+                parser.get();
+
+                long imported;
+                // The same lock TransactionService writes take, see UserDailyRollupRepository.lockForWrite
+                try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_xact_lock_shared(?)")) {
+                    lock.setLong(1, job.userId + UserDailyRollupRepository.LOCK_KEY_OFFSET);
+                    lock.execute();
+                }
+                try (PreparedStatement merge = connection.prepareStatement(MERGE_STAGING)) {
+                    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                    merge.setLong(1, job.userId);
+                    merge.setLong(2, job.userId);
+                    merge.setLong(3, job.userId);
+                    merge.setString(4, BudgetSpentConsumer.TYPE);
+                    merge.setTimestamp(5, now);
+                    merge.setTimestamp(6, now);
+                    merge.setLong(7, job.userId);
+                    try (ResultSet result = merge.executeQuery()) {
+                        result.next();
+                        imported = result.getLong(1);
+                    }
+                }
+                connection.commit();
+                outboxDispatcher.wakeUp();
+                return imported;
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+        } finally {
+            parser.cancel(true);
+        }
+    }
+
+    private void copyIntoStaging(ImportJob job, Connection connection,
+                                 BlockingQueue<List<StatementCsvParser.Row>> queue) throws Exception {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+        try {
+            StringBuilder buffer = new StringBuilder(CHUNK_SIZE * 128);
+            for (List<StatementCsvParser.Row> chunk = queue.take(); chunk != END; chunk = queue.take()) {
+                buffer.setLength(0);
+                for (StatementCsvParser.Row row : chunk) {
+                    appendCopyRow(buffer, row);
+                }
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            job.rowsStaged = copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    // Parser stage. The queue is always ended unless the loader itself has gone away
+    // (and interrupted us), so the loader never waits on a dead producer.
+    private void parse(ImportJob job, Path path,
+                       BlockingQueue<List<StatementCsvParser.Row>> queue) throws Exception {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            StatementCsvParser parser = new StatementCsvParser(reader);
+            List<StatementCsvParser.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (true) {
+                StatementCsvParser.Row row;
+                try {
+                    row = parser.next();
+                } catch (IllegalArgumentException e) {
+                    job.reject(e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                chunk.add(row);
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == CHUNK_SIZE) {
+                    queue.put(chunk);
+                    save(job);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                queue.put(chunk);
+            }
+            save(job);
+            queue.put(END);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            queue.put(END);
+            throw e;
+        }
+    }
+
+    private static void appendCopyRow(StringBuilder buffer, StatementCsvParser.Row row) {
+        buffer.append(row.lineNumber()).append(',')
+                .append(row.date()).append(',');
+        appendQuoted(buffer, row.description());
+        buffer.append(',');
+        appendQuoted(buffer, row.category());
+        buffer.append(',')
+                .append(row.amount()).append(',')
+                .append(row.type()).append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder buffer, String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    // Writes the job's current state. Synchronized per job so the parser's progress writes
+    // cannot land after, and overwrite, the loader's final status.
+    private void save(ImportJob job) {
+        synchronized (job) {
+            String[] rejections;
+            synchronized (job.rejections) {
+                rejections = job.rejections.toArray(new String[0]);
+            }
+            jdbcTemplate.update(SAVE_JOB, job.status, job.rowsRead.get(), job.rowsRejected.get(),
+                    job.rowsStaged, job.rowsImported, rejections, job.startedAt, job.finishedAt,
+                    job.error, LocalDateTime.now(), job.id);
+        }
+    }
+
+    private StatementImportDTO find(Long userId, String jobId) {
+        List<StatementImportDTO> found = jdbcTemplate.query(
+                "SELECT * FROM statement_imports WHERE id = ? AND user_id = ?",
+                (rs, rowNum) -> toDTO(rs), jobId, userId);
+        if (found.isEmpty()) {
+            throw AppException.importNotFound();
+        }
+        return found.get(0);
+    }
+
+    private StatementImportDTO toDTO(ImportJob job) {
+        StatementImportDTO dto = new StatementImportDTO();
+        dto.setJobId(job.id);
+        dto.setFileName(job.fileName);
+        dto.setStatus(job.status);
+        dto.setRejections(List.of());
+        return dto;
+    }
+
+    private static StatementImportDTO toDTO(ResultSet rs) throws SQLException {
+        StatementImportDTO dto = new StatementImportDTO();
+        dto.setJobId(rs.getString("id"));
+        dto.setFileName(rs.getString("file_name"));
+        dto.setStatus(rs.getString("status"));
+        dto.setRowsRead(rs.getLong("rows_read"));
+        dto.setRowsRejected(rs.getLong("rows_rejected"));
+        dto.setRowsImported(rs.getLong("rows_imported"));
+        dto.setRowsSkipped(dto.getStatus().equals("COMPLETED")
+                ? rs.getLong("rows_staged") - dto.getRowsImported() : 0);
+        dto.setStartedAt(toLocalDateTime(rs.getTimestamp("started_at")));
+        dto.setFinishedAt(toLocalDateTime(rs.getTimestamp("finished_at")));
+        dto.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        dto.setRowsPerSecond(rowsPerSecond(dto.getRowsRead(), dto.getStartedAt(), dto.getFinishedAt()));
+        dto.setError(rs.getString("error"));
+        dto.setRejections(List.of((String[]) rs.getArray("rejections").getArray()));
+        return dto;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    // Throughput of the read-validate-copy pipeline, live while running
+    private static double rowsPerSecond(long rowsRead, LocalDateTime startedAt, LocalDateTime finishedAt) {
+        if (startedAt == null) {
+            return 0;
+        }
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return Math.round(rowsRead * 10_000.0 / millis) / 10.0;
+    }
+
+    private static final class ImportJob {
+        final String id;
+        final Long userId;
+        final String fileName;
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsRejected = new AtomicLong();
+        final List<String> rejections = new ArrayList<>();
+        volatile String status = "QUEUED";
+        volatile long rowsStaged;
+        volatile long rowsImported;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        ImportJob(String id, Long userId, String fileName) {
+            this.id = id;
+            this.userId = userId;
+            this.fileName = fileName;
+        }
+
+        void start() {
+            startedAt = LocalDateTime.now();
+            status = "RUNNING";
+        }
+
+        void reject(String message) {
+            rowsRejected.incrementAndGet();
+            synchronized (rejections) {
+                if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                    rejections.add(message);
+                }
+            }
+        }
+
+        void complete(long imported) {
+            rowsImported = imported;
+            finishedAt = LocalDateTime.now();
+            status = "COMPLETED";
+        }
+
+        void fail(String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            status = "FAILED";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.trackmint.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Per-user summary DTOs, bounded by size and TTL. Entries are keyed by the user's data version
+// they were built from, so any write, on any node, makes them unreachable; they age out
+// through the size and TTL bounds. A summary computed concurrently with a write is keyed by
+// the version read before it started and cannot outlive that write.
+@Component
+public class SummaryCache {
+
+    public enum Summary { DASHBOARD, TRANSACTIONS, BUDGETS, CATEGORIES }
+
+    private record Key(Long userId, Summary summary, long version) {
+    }
+
+    private final UserDataVersionService dataVersions;
+    private final Cache<Key, Object> summaries;
+
+    public SummaryCache(UserDataVersionService dataVersions,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.summary-cache.size:10000}") long size,
+                        @Value("${app.summary-cache.ttl:5m}") Duration ttl) {
+        this.dataVersions = dataVersions;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(size)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // cache.gets{result=hit|miss}, cache.evictions and cache.size under cache=summaries
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "summaries");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Long userId, Summary summary, Supplier<T> loader) {
+        Key key = new Key(userId, summary, dataVersions.current(userId));
+        Object cached = summaries.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        T value = loader.get();
+        summaries.put(key, value);
+        return value;
+    }
+}
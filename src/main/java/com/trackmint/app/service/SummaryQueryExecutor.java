@@ -0,0 +1,131 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.config.StatementCounter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Runs the independent read-only queries behind a summary.
+//
+// Serial mode (the default) runs them one after another in a single read-only transaction.
+// Parallel mode runs each on a virtual thread in its own read-only transaction, so the
+// summary takes as long as its slowest query. A request keeps at most max-per-request queries
+// in flight, and all requests together hold at most max-connections extra connections; once
+// that budget is used up the remaining queries run on the caller's thread instead of queueing
+// for the pool. Statements run on the virtual threads count toward the request's
+// trackmint.db.statements like those run on the caller's thread.
+@Component
+public class SummaryQueryExecutor {
+
+    private final TransactionTemplate readOnly;
+    private final boolean parallel;
+    private final int maxPerRequest;
+    private final Semaphore connections;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SummaryQueryExecutor(PlatformTransactionManager transactionManager,
+                                @Value("${app.summary-queries.parallel:false}") boolean parallel,
+                                @Value("${app.summary-queries.max-per-request:4}") int maxPerRequest,
+                                @Value("${app.summary-queries.max-connections:4}") int maxConnections) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.parallel = parallel;
+        this.maxPerRequest = Math.max(1, maxPerRequest);
+        this.connections = new Semaphore(Math.max(0, maxConnections));
+    }
+
+    public Fork fork() {
+        return new Fork();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Queries are only collected by submit; join runs them, and the returned suppliers
+    // hold the results afterwards
+    public final class Fork {
+
+        private final List<Query<?>> queries = new ArrayList<>();
+
+        public <T> Supplier<T> submit(Supplier<T> query) {
+            Query<T> submitted = new Query<>(query);
+            queries.add(submitted);
+            return submitted::result;
+        }
+
+        public void join() {
+            if (!parallel || queries.size() < 2) {
+                readOnly.executeWithoutResult(status -> queries.forEach(Query::run));
+                return;
+            }
+
+            Semaphore slots = new Semaphore(maxPerRequest);
+            List<Future<?>> running = new ArrayList<>(queries.size());
+            try {
+                for (Query<?> query : queries) {
+                    slots.acquire();
+                    if (!connections.tryAcquire()) {
+                        slots.release();
+                        readOnly.executeWithoutResult(status -> query.run());
+                        continue;
+                    }
+                    running.add(executor.submit(StatementCounter.propagate(() -> {
+                        try {
+                            readOnly.executeWithoutResult(status -> query.run());
+                        } finally {
+                            connections.release();
+                            slots.release();
+                        }
+                    })));
+                }
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                running.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for summary queries", e);
+            } catch (ExecutionException e) {
+                running.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            } catch (RuntimeException e) {
+                running.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+    }
+
+    // Results are published to the caller through Future.get, or on the caller's own thread
+    private static final class Query<T> {
+
+        private final Supplier<T> query;
+        private T result;
+
+        Query(Supplier<T> query) {
+            this.query = query;
+        }
+
+        void run() {
+            result = query.get();
+        }
+
+        T result() {
+            return result;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.entity.Transaction;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+@Service
+public class TransactionExportService {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final TransactionExportWriter exportWriter;
+
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.exportWriter = new TransactionExportWriter(objectMapper);
+    }
+
+    public String normalizeFormat(String format) {
+        String normalized = format == null ? NDJSON : format.trim().toLowerCase();
+        if (!NDJSON.equals(normalized) && !CSV.equals(normalized)) {
+            throw AppException.unsupportedExportFormat();
+        }
+        return normalized;
+    }
+
+    // Runs on the response thread. The transaction keeps the database cursor open
+    // while rows are written, and each row is detached once read so the persistence
+    // context stays empty however long the history is.
+    @Transactional(readOnly = true)
+    public long exportTransactions(Long userId, String format, OutputStream out) throws IOException {
+        try (Stream<Transaction> rows = transactionRepository.streamByUserId(userId)
+                .peek(entityManager::detach)) {
+            return CSV.equals(format)
+                    ? exportWriter.writeCsv(rows, out)
+                    : exportWriter.writeNdjson(rows, out);
+        }
+    }
+}
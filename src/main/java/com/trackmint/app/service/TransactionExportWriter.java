@@ -0,0 +1,105 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trackmint.app.dto.TransactionResponseDTO;
+import com.trackmint.app.entity.Transaction;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes transactions one row at a time, so memory use does not depend on the row count.
+// The caller owns the stream and the output; nothing is closed here.
+public class TransactionExportWriter {
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public TransactionExportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writerFor(TransactionResponseDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public long writeNdjson(Stream<Transaction> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        long count = 0;
+        Iterator<Transaction> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            rowWriter.writeValue(generator, toDTO(iterator.next()));
+            generator.writeRaw('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return count;
+    }
+
+    public long writeCsv(Stream<Transaction> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,date,type,category,description,amount\n");
+
+        long count = 0;
+        Iterator<Transaction> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            Transaction transaction = iterator.next();
+            writer.write(String.valueOf(transaction.getId()));
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getDate()));
+            writer.write(',');
+            writer.write(csvField(transaction.getType()));
+            writer.write(',');
+            writer.write(csvField(transaction.getCategory()));
+            writer.write(',');
+            writer.write(csvField(transaction.getDescription()));
+            writer.write(',');
+            writer.write(String.valueOf(transaction.getAmount()));
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Quotes fields that need it and defuses spreadsheet formulas (=, +, -, @)
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private TransactionResponseDTO toDTO(Transaction transaction) {
+        TransactionResponseDTO dto = new TransactionResponseDTO();
+        dto.setId(transaction.getId());
+        dto.setDescription(transaction.getDescription());
+        dto.setCategory(transaction.getCategory());
+        dto.setAmount(transaction.getAmount());
+        dto.setType(transaction.getType());
+        dto.setDate(transaction.getDate());
+        return dto;
+    }
+}
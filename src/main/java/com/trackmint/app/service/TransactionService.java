@@ -1,112 +1,158 @@
 package com.trackmint.app.service;
 
+import com.trackmint.app.dto.DashboardDeltaDTO;
 import com.trackmint.app.dto.DashboardSummaryDTO;
+import com.trackmint.app.dto.TransactionPageDTO;
 import com.trackmint.app.dto.TransactionRequestDTO;
 import com.trackmint.app.dto.TransactionResponseDTO;
 import com.trackmint.app.entity.Transaction;
 import com.trackmint.app.entity.User;
-import com.trackmint.app.repository.BudgetRepository;
+import com.trackmint.app.exception.AppException;
 import com.trackmint.app.repository.TransactionRepository;
+import com.trackmint.app.repository.UserDailyRollupRepository;
 import com.trackmint.app.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
 @Service
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // A week start past any real day, for aggregate queries whose weekday rows are not used
+    private static final LocalDate NO_WEEK = LocalDate.of(9999, 12, 31);
+    // Rows held in the persistence context before a batch insert is flushed and cleared
+    private static final int BATCH_FLUSH_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
 
-    private  final  NotificationService notificationService;
-    private  final BudgetRepository budgetRepository;
+    private final OutboxService outbox;
+    private final EntityManager entityManager;
+    private final UserDailyRollupRepository rollupRepository;
+    private final UserDataVersionService dataVersions;
+    private final SummaryQueryExecutor summaryQueries;
+    private final LiveEventService liveEvents;
 
     public TransactionService(TransactionRepository transactionRepository,
-                              UserRepository userRepository,NotificationService notificationService,BudgetRepository budgetRepository) {
+                              UserRepository userRepository, OutboxService outbox,
+                              EntityManager entityManager, UserDailyRollupRepository rollupRepository,
+                              UserDataVersionService dataVersions, SummaryQueryExecutor summaryQueries,
+                              LiveEventService liveEvents) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
-        this.notificationService = notificationService;
-        this.budgetRepository = budgetRepository;
+        this.outbox = outbox;
+        this.entityManager = entityManager;
+        this.rollupRepository = rollupRepository;
+        this.dataVersions = dataVersions;
+        this.summaryQueries = summaryQueries;
+        this.liveEvents = liveEvents;
     }
 
 
 
     @Transactional(readOnly = true)
-    public List<TransactionResponseDTO> getAllTransactions(String email) {
-        User user = findUserByEmail(email);
-        return transactionRepository.findByUserOrderByDateDesc(user)
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    public TransactionPageDTO getAllTransactions(Long userId, String cursor, Integer limit) {
+        PageCursor position = decodeCursor(cursor);
+        int size = pageSize(limit);
+        Limit rows = Limit.of(size + 1);
+        List<Transaction> page = position == null
+                ? transactionRepository.findFirstPage(userId, rows)
+                : transactionRepository.findPage(userId, position.date(), position.id(), rows);
+        return toPage(page, size);
     }
 
     @Transactional(readOnly = true)
-    public TransactionResponseDTO getTransactionById(String email, Long id) {
-        User user = findUserByEmail(email);
-        Transaction transaction = findTransactionById(id);
-        checkOwnership(transaction, user);
-        return toResponseDTO(transaction);
+    public TransactionResponseDTO getTransactionById(Long userId, Long id) {
+        return toResponseDTO(findTransactionById(userId, id));
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponseDTO> getTransactionsByType(String email, String type) {
-        User user = findUserByEmail(email);
-        return transactionRepository.findByUserAndType(user, type.toUpperCase())
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    public TransactionPageDTO getTransactionsByType(Long userId, String type,
+                                                    String cursor, Integer limit) {
+        PageCursor position = decodeCursor(cursor);
+        int size = pageSize(limit);
+        Limit rows = Limit.of(size + 1);
+        String normalized = type.toUpperCase();
+        List<Transaction> page = position == null
+                ? transactionRepository.findFirstPageByType(userId, normalized, rows)
+                : transactionRepository.findPageByType(
+                        userId, normalized, position.date(), position.id(), rows);
+        return toPage(page, size);
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponseDTO> getTransactionsByCategory(String email, String category) {
-        User user = findUserByEmail(email);
-        return transactionRepository.findByUserAndCategory(user, category)
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    public TransactionPageDTO getTransactionsByCategory(Long userId, String category,
+                                                        String cursor, Integer limit) {
+        PageCursor position = decodeCursor(cursor);
+        int size = pageSize(limit);
+        Limit rows = Limit.of(size + 1);
+        List<Transaction> page = position == null
+                ? transactionRepository.findFirstPageByCategory(userId, category, rows)
+                : transactionRepository.findPageByCategory(
+                        userId, category, position.date(), position.id(), rows);
+        return toPage(page, size);
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponseDTO> getTransactionsByDateRange(String email,
-                                                                   LocalDateTime start,
-                                                                   LocalDateTime end) {
-        User user = findUserByEmail(email);
-        return transactionRepository.findByUserAndDateBetweenOrderByDateDesc(user, start, end)
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+    public TransactionPageDTO getTransactionsByDateRange(Long userId,
+                                                         LocalDateTime start,
+                                                         LocalDateTime end,
+                                                         String cursor,
+                                                         Integer limit) {
+        PageCursor position = decodeCursor(cursor);
+        int size = pageSize(limit);
+        Limit rows = Limit.of(size + 1);
+        List<Transaction> page = position == null
+                ? transactionRepository.findFirstPageByDateRange(userId, start, end, rows)
+                : transactionRepository.findPageByDateRange(
+                        userId, start, end, position.date(), position.id(), rows);
+        return toPage(page, size);
     }
 
-    @Transactional(readOnly = true)
-    public DashboardSummaryDTO getDashboardSummary(String email) {
-        User user = findUserByEmail(email);
-
-        Double totalIncome = transactionRepository.sumAmountByUserAndType(user, "INCOME");
-        Double totalExpenses = transactionRepository.sumAmountByUserAndType(user, "EXPENSE");
-
-        totalIncome = totalIncome != null ? totalIncome : 0.0;
-        totalExpenses = totalExpenses != null ? totalExpenses : 0.0;
-
-        Double totalBalance = totalIncome - totalExpenses;
-        Double totalSavings = totalBalance > 0 ? totalBalance : 0.0;
-
-        List<TransactionResponseDTO> recentTransactions = transactionRepository
-                .findTop5ByUserOrderByDateDesc(user)
+    // Same single rollup query as the dashboard, without the weekday rows
+    public DashboardSummaryDTO getDashboardSummary(Long userId) {
+        SummaryQueryExecutor.Fork fork = summaryQueries.fork();
+        Supplier<List<Object[]>> aggregates = fork.submit(() ->
+                rollupRepository.findDashboardAggregates(userId, NO_WEEK));
+        Supplier<List<TransactionResponseDTO>> recent = fork.submit(() -> transactionRepository
+                .findTop5ByUserIdOrderByDateDescIdDesc(userId)
                 .stream()
                 .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+        fork.join();
 
+        double totalIncome = 0.0;
+        double totalExpenses = 0.0;
         Map<String, Double> categorySpending = new HashMap<>();
-        List<Object[]> categoryData = transactionRepository.findSpendingByCategory(user);
-        for (Object[] row : categoryData) {
-            categorySpending.put((String) row[0], (Double) row[1]);
+        for (Object[] row : aggregates.get()) {
+            if ("TOTAL".equals(row[0])) {
+                totalIncome = ((Number) row[2]).doubleValue();
+                totalExpenses = ((Number) row[3]).doubleValue();
+            } else if ("CATEGORY".equals(row[0])) {
+                categorySpending.put((String) row[1], ((Number) row[3]).doubleValue());
+            }
         }
 
+        Double totalBalance = totalIncome - totalExpenses;
+        Double totalSavings = totalBalance > 0 ? totalBalance : 0.0;
+
+        List<TransactionResponseDTO> recentTransactions = recent.get();
+
         DashboardSummaryDTO summary = new DashboardSummaryDTO();
         summary.setTotalBalance(totalBalance);
         summary.setTotalIncome(totalIncome);
@@ -121,8 +167,9 @@ public class TransactionService {
 
 
     @Transactional
-    public TransactionResponseDTO addTransaction(String email, TransactionRequestDTO dto) {
-        User user = findUserByEmail(email);
+    public TransactionResponseDTO addTransaction(Long userId, TransactionRequestDTO dto) {
+        rollupRepository.lockForWrite(userId);
+        User user = getUserReference(userId);
 
         Transaction transaction = new Transaction();
         transaction.setUser(user);
@@ -133,49 +180,74 @@ public class TransactionService {
         transaction.setDate(dto.getDate() != null ? dto.getDate() : LocalDateTime.now());
 
         Transaction saved = transactionRepository.save(transaction);
+        addToRollup(userId, saved, 1);
 
-        if ("EXPENSE".equalsIgnoreCase(dto.getType())) {
-            LocalDateTime now = LocalDateTime.now();
-            System.out.println("🔍 Looking for budget - category: " + dto.getCategory()
-                    + " month: " + now.getMonthValue() + " year: " + now.getYear());
-
-            budgetRepository.findByUserAndCategoryAndMonthAndYear(
-                    user, dto.getCategory(), now.getMonthValue(), now.getYear()
-            ).ifPresent(budget -> {
-                System.out.println("✅ Budget found: " + budget.getCategory()
-                        + " amount: " + budget.getAmount() + " spent: " + budget.getSpent());
-
-                double newSpent = budget.getSpent() + Math.abs(dto.getAmount());
-                budget.setSpent(newSpent);
-                budgetRepository.save(budget);
-
-                if (budget.getAmount() > 0) {
-                    double percentage = (newSpent / budget.getAmount()) * 100;
-                    System.out.println("📊 Percentage: " + percentage);
-
-                    if (percentage >= 80) {
-                        System.out.println("🔔 Creating notification...");
-                        notificationService.createBudgetAlert(
-                                email,
-                                budget.getCategory(),
-                                percentage,
-                                newSpent,
-                                budget.getAmount()
-                        );
-                        System.out.println("✅ Notification created!");
-                    }
-                }
-            });
-        }
+        addToBudget(userId, saved, 1);
+        dataVersions.changed(userId);
+        publishDelta(userId, saved, null);
         return toResponseDTO(saved);
     }
 
+    // Inserts go out as JDBC batches, and each budget gets one outbox event per
+    // (category, month) group instead of one per expense row
+    @Transactional
+    public List<TransactionResponseDTO> addTransactions(Long userId, List<TransactionRequestDTO> dtos) {
+        rollupRepository.lockForWrite(userId);
+        User user = getUserReference(userId);
+        List<TransactionResponseDTO> saved = new ArrayList<>(dtos.size());
+        List<Long> unrolled = new ArrayList<>(BATCH_FLUSH_SIZE);
+        Map<BudgetPeriod, Double> expenseTotals = new LinkedHashMap<>();
+        DashboardDeltaDTO dashboardDelta = new DashboardDeltaDTO();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (TransactionRequestDTO dto : dtos) {
+            Transaction transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setDescription(dto.getDescription());
+            transaction.setCategory(dto.getCategory());
+            transaction.setAmount(dto.getAmount());
+            transaction.setType(dto.getType().toUpperCase());
+            transaction.setDate(dto.getDate() != null ? dto.getDate() : now);
+
+            entityManager.persist(transaction);
+            saved.add(toResponseDTO(transaction));
+            unrolled.add(transaction.getId());
+            dashboardDelta.add(transaction.getType(), transaction.getCategory(), transaction.getAmount(), 1);
+
+            if ("EXPENSE".equals(transaction.getType())) {
+                LocalDateTime date = transaction.getDate();
+                expenseTotals.merge(
+                        new BudgetPeriod(transaction.getCategory(), date.getMonthValue(), date.getYear()),
+                        Math.abs(transaction.getAmount()), Double::sum);
+            }
+            if (saved.size() % BATCH_FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                rollupRepository.addTransactions(unrolled);
+                unrolled.clear();
+            }
+        }
+        entityManager.flush();
+        if (!unrolled.isEmpty()) {
+            rollupRepository.addTransactions(unrolled);
+        }
+
+        expenseTotals.forEach((period, delta) -> outbox.publish(userId, BudgetSpentConsumer.TYPE,
+                new BudgetSpentConsumer.Change(period.category(), period.month(), period.year(), delta)));
+        dataVersions.changed(userId);
+        liveEvents.publish(userId, LiveEventService.DASHBOARD, dashboardDelta);
+        return saved;
+    }
+
     @Transactional
-    public TransactionResponseDTO updateTransaction(String email, Long id,
+    public TransactionResponseDTO updateTransaction(Long userId, Long id,
                                                     TransactionRequestDTO dto) {
-        User user = findUserByEmail(email);
-        Transaction transaction = findTransactionById(id);
-        checkOwnership(transaction, user);
+        rollupRepository.lockForWrite(userId);
+        Transaction transaction = findTransactionById(userId, id);
+        addToRollup(userId, transaction, -1);
+        addToBudget(userId, transaction, -1);
+        DashboardDeltaDTO delta = new DashboardDeltaDTO();
+        delta.add(transaction.getType(), transaction.getCategory(), transaction.getAmount(), -1);
 
         if (dto.getDescription() != null) transaction.setDescription(dto.getDescription());
         if (dto.getCategory() != null) transaction.setCategory(dto.getCategory());
@@ -184,33 +256,125 @@ public class TransactionService {
         if (dto.getDate() != null) transaction.setDate(dto.getDate());
 
         Transaction saved = transactionRepository.save(transaction);
+        addToRollup(userId, saved, 1);
+        addToBudget(userId, saved, 1);
+        dataVersions.changed(userId);
+        publishDelta(userId, saved, delta);
         return toResponseDTO(saved);
     }
 
     @Transactional
-    public void deleteTransaction(String email, Long id) {
-        User user = findUserByEmail(email);
-        Transaction transaction = findTransactionById(id);
-        checkOwnership(transaction, user);
-        transactionRepository.delete(transaction);
+    public void deleteTransaction(Long userId, Long id) {
+        rollupRepository.lockForWrite(userId);
+        List<Object[]> deleted = transactionRepository.deleteByIdAndUserId(id, userId);
+        if (deleted.isEmpty()) {
+            throw new RuntimeException("Transaction not found");
+        }
+
+        Object[] row = deleted.get(0);
+        String type = (String) row[0];
+        String category = (String) row[1];
+        double amount = ((Number) row[2]).doubleValue();
+        addToBudget(userId, type, category,
+                ((Number) row[3]).intValue(), ((Number) row[4]).intValue(), amount, -1);
+
+        DashboardDeltaDTO delta = new DashboardDeltaDTO();
+        delta.add(type, category, amount, -1);
+        dataVersions.changed(userId);
+        liveEvents.publish(userId, LiveEventService.DASHBOARD, delta);
     }
 
 
 
-    private User findUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    // The caller is already authenticated, so a proxy is enough for ownership checks and FKs
+    private User getUserReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
+    // sign is 1 to count the transaction into its daily bucket and -1 to take it out
+    private void addToRollup(Long userId, Transaction transaction, int sign) {
+        rollupRepository.add(userId, transaction.getDate().toLocalDate(),
+                transaction.getCategory(), transaction.getType(),
+                sign * transaction.getAmount(), sign);
     }
 
-    private Transaction findTransactionById(Long id) {
-        return transactionRepository.findById(id)
+    // Expenses move their budget's spent, keyed by the month of the transaction's date. The
+    // budget row is shared by all of a category's writes, so the update is left to the outbox
+    // dispatcher, which applies many changes to it at once, and the request never waits on it.
+    private void addToBudget(Long userId, Transaction transaction, int sign) {
+        LocalDateTime date = transaction.getDate();
+        addToBudget(userId, transaction.getType(), transaction.getCategory(),
+                date.getMonthValue(), date.getYear(), transaction.getAmount(), sign);
+    }
+
+    private void addToBudget(Long userId, String type, String category,
+                             int month, int year, double amount, int sign) {
+        if (!"EXPENSE".equals(type)) {
+            return;
+        }
+        outbox.publish(userId, BudgetSpentConsumer.TYPE,
+                new BudgetSpentConsumer.Change(category, month, year, sign * Math.abs(amount)));
+    }
+
+    // delta already holds what an update took away; the transaction's current values are added
+    private void publishDelta(Long userId, Transaction transaction, DashboardDeltaDTO delta) {
+        DashboardDeltaDTO change = delta != null ? delta : new DashboardDeltaDTO();
+        change.add(transaction.getType(), transaction.getCategory(), transaction.getAmount(), 1);
+        liveEvents.publish(userId, LiveEventService.DASHBOARD, change);
+    }
+
+    // Other users' rows are indistinguishable from missing ones
+    private Transaction findTransactionById(Long userId, Long id) {
+        return transactionRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
     }
 
-    private void checkOwnership(Transaction transaction, User user) {
-        if (!transaction.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Not authorized");
+    private int pageSize(Integer limit) {
+        if (limit == null) return DEFAULT_PAGE_SIZE;
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // rows holds up to size + 1 entries; the extra one only signals that another page exists
+    private TransactionPageDTO toPage(List<Transaction> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<Transaction> page = hasMore ? rows.subList(0, size) : rows;
+
+        TransactionPageDTO dto = new TransactionPageDTO();
+        dto.setTransactions(page.stream()
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList()));
+        dto.setHasMore(hasMore);
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            dto.setNextCursor(encodeCursor(last.getDate(), last.getId()));
         }
+        return dto;
+    }
+
+    // Cursors are opaque to clients: base64url of "<date>|<id>" of the last row returned
+    private String encodeCursor(LocalDateTime date, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null for the first page
+    private PageCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\|");
+            return new PageCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw AppException.invalidCursor();
+        }
+    }
+
+    private record PageCursor(LocalDateTime date, Long id) {
+    }
+
+    private record BudgetPeriod(String category, int month, int year) {
     }
 
     private TransactionResponseDTO toResponseDTO(Transaction transaction) {
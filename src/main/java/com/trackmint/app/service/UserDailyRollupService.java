@@ -0,0 +1,69 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.repository.UserDailyRollupRepository;
+import com.trackmint.app.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+// The rollup is maintained incrementally by every transaction write. Rebuilding re-derives
+// it from the raw rows, to repair drift from writes made outside the application.
+@Service
+public class UserDailyRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDailyRollupService.class);
+    private static final int ID_CHUNK = 1000;
+
+    private final UserDailyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserDataVersionService dataVersions;
+    private final ClusterJobRunner jobs;
+
+    public UserDailyRollupService(UserDailyRollupRepository rollupRepository,
+                                  UserRepository userRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  UserDataVersionService dataVersions,
+                                  ClusterJobRunner jobs) {
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.dataVersions = dataVersions;
+        this.jobs = jobs;
+    }
+
+    // One short transaction per user, so a full rebuild never holds every bucket locked.
+    // Waits for the user's in-flight writes and holds new ones back until it commits.
+    public void rebuild(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.lockForRebuild(userId);
+            rollupRepository.deleteByUserId(userId);
+            rollupRepository.rebuildByUserId(userId);
+            dataVersions.changed(userId);
+        });
+    }
+
+    @Scheduled(cron = "${app.rollup.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        jobs.run("rollup-rebuild", this::rebuildAll);
+    }
+
+    public void rebuildAll() {
+        long started = System.currentTimeMillis();
+        int users = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = userRepository.findIdsAfter(afterId, ID_CHUNK)).isEmpty()) {
+            for (Long userId : ids) {
+                rebuild(userId);
+                users++;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Rebuilt the daily rollup for {} users in {} ms",
+                users, System.currentTimeMillis() - started);
+    }
+}
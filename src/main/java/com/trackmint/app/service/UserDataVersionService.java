@@ -0,0 +1,33 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import java.util.Collection;
+
+// A per-user counter that moves on every write to the user's transactions, budgets,
+// categories or notifications. It lives in the database, so every node agrees on it.
+// The bump joins the caller's transaction: readers see the new version exactly when
+// they can see the new data.
+@Service
+public class UserDataVersionService {
+
+    private final UserRepository userRepository;
+
+    public UserDataVersionService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public long current(Long userId) {
+        return userRepository.findDataVersion(userId);
+    }
+
+    public void changed(Long userId) {
+        userRepository.incrementDataVersion(userId);
+    }
+
+    public void changed(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            userRepository.incrementDataVersions(userIds);
+        }
+    }
+}
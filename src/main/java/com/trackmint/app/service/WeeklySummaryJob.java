@@ -0,0 +1,138 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.repository.UserDailyRollupRepository;
+import com.trackmint.app.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sends every user with activity last week their earned / spent / saved summary.
+// Users are walked by id in keyset chunks. Each chunk is one transaction on a virtual
+// thread: a single aggregate over the daily rollup reads the chunk's totals and records
+// them in weekly_summaries, and the notifications go in as one JDBC batch. At most
+// `concurrency` chunks run at once, which bounds the connections the job takes from the
+// pool. A chunk that fails rolls back on its own; running the job again for the same week
+// only picks up the users not summarized yet.
+@Component
+public class WeeklySummaryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(WeeklySummaryJob.class);
+    static final String JOB = "weekly-summary";
+
+    private final UserRepository userRepository;
+    private final UserDailyRollupRepository rollupRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterJobRunner jobs;
+    private final int chunkSize;
+    private final int concurrency;
+    private final Counter usersScanned;
+    private final Counter summariesSent;
+    private final Timer chunkDuration;
+
+    public WeeklySummaryJob(UserRepository userRepository,
+                            UserDailyRollupRepository rollupRepository,
+                            NotificationService notificationService,
+                            TransactionTemplate transactionTemplate,
+                            ClusterJobRunner jobs,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.weekly-summary.chunk-size:500}") int chunkSize,
+                            @Value("${app.weekly-summary.concurrency:4}") int concurrency) {
+        this.userRepository = userRepository;
+        this.rollupRepository = rollupRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = transactionTemplate;
+        this.jobs = jobs;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+        this.usersScanned = Counter.builder("trackmint.weekly-summary.users")
+                .description("Users scanned by the weekly summary job")
+                .register(meterRegistry);
+        this.summariesSent = Counter.builder("trackmint.weekly-summary.sent")
+                .description("Weekly summary notifications created")
+                .register(meterRegistry);
+        this.chunkDuration = Timer.builder("trackmint.weekly-summary.chunk")
+                .description("Time taken by one chunk of the weekly summary job")
+                .register(meterRegistry);
+    }
+
+    // Mondays, for the week that just ended
+    @Scheduled(cron = "${app.weekly-summary.cron:0 0 8 * * MON}")
+    public void scheduledRun() {
+        LocalDate weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+        jobs.run(JOB, () -> run(weekStart));
+    }
+
+    // Returns the number of summaries sent
+    public long run(LocalDate weekStart) {
+        long started = System.nanoTime();
+        AtomicLong sent = new AtomicLong();
+        AtomicInteger failedChunks = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        long scanned = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long afterId = 0;
+            List<Long> ids;
+            while (!(ids = userRepository.findIdsAfter(afterId, chunkSize)).isEmpty()) {
+                long from = afterId;
+                long to = ids.get(ids.size() - 1);
+                permits.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        sent.addAndGet(chunkDuration.record(() -> summarize(weekStart, from, to)));
+                    } catch (RuntimeException e) {
+                        failedChunks.incrementAndGet();
+                        log.error("Weekly summary chunk ({}, {}] failed", from, to, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+                usersScanned.increment(ids.size());
+                scanned += ids.size();
+                afterId = to;
+            }
+        }
+
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Sent {} weekly summaries for the week of {}: {} users in {} ms ({} users/s)",
+                sent.get(), weekStart, scanned, took.toMillis(),
+                took.isZero() ? scanned : Math.round(scanned * 1e9 / took.toNanos()));
+        if (failedChunks.get() > 0) {
+            throw new IllegalStateException(failedChunks.get()
+                    + " weekly summary chunks failed; running the job again retries their users");
+        }
+        return sent.get();
+    }
+
+    private int summarize(LocalDate weekStart, long afterId, long lastId) {
+        return transactionTemplate.execute(status -> {
+            List<NotificationService.WeeklySummary> summaries = rollupRepository
+                    .claimWeeklySummaries(afterId, lastId, weekStart, weekStart.plusWeeks(1), LocalDateTime.now())
+                    .stream()
+                    .map(row -> new NotificationService.WeeklySummary(((Number) row[0]).longValue(),
+                            ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue()))
+                    .toList();
+            notificationService.createWeeklySummaries(summaries);
+            summariesSent.increment(summaries.size());
+            return summaries.size();
+        });
+    }
+}
@@ -0,0 +1,12 @@
+-- History of cluster-wide scheduled jobs: one row per run, written by the node that ran it
+CREATE TABLE IF NOT EXISTS job_runs (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name    varchar(100) NOT NULL,
+    node        varchar(255) NOT NULL,
+    status      varchar(16) NOT NULL,
+    started_at  timestamp(6) NOT NULL,
+    finished_at timestamp(6),
+    error       text
+);
+
+CREATE INDEX IF NOT EXISTS idx_job_runs_job_started ON job_runs (job_name, started_at);
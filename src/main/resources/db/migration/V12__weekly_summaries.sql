@@ -0,0 +1,10 @@
+-- One row per user and week a summary was sent for, written in the same transaction as
+-- the notification. A rerun of the weekly job skips the users already done.
+CREATE TABLE IF NOT EXISTS weekly_summaries (
+    user_id    bigint    NOT NULL REFERENCES users (id),
+    week_start date      NOT NULL,
+    earned     float(53) NOT NULL,
+    spent      float(53) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (user_id, week_start)
+);
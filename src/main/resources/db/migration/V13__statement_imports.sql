@@ -0,0 +1,22 @@
+-- Statement import jobs, so any node can report progress on an import another node is
+-- running. The running node rewrites its row after every parsed chunk and touches
+-- updated_at on a heartbeat; a job whose node stops heartbeating is reported as failed.
+CREATE TABLE IF NOT EXISTS statement_imports (
+    id            varchar(36)  PRIMARY KEY,
+    user_id       bigint       NOT NULL REFERENCES users (id),
+    file_name     varchar(255),
+    node          varchar(255) NOT NULL,
+    status        varchar(16)  NOT NULL,
+    rows_read     bigint       NOT NULL DEFAULT 0,
+    rows_rejected bigint       NOT NULL DEFAULT 0,
+    rows_staged   bigint       NOT NULL DEFAULT 0,
+    rows_imported bigint       NOT NULL DEFAULT 0,
+    rejections    text[]       NOT NULL DEFAULT '{}',
+    started_at    timestamp(6),
+    finished_at   timestamp(6),
+    error         text,
+    created_at    timestamp(6) NOT NULL,
+    updated_at    timestamp(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_statement_imports_updated ON statement_imports (updated_at);
@@ -0,0 +1,13 @@
+-- Transaction ids move from IDENTITY to a pooled sequence so inserts can be batched.
+-- Hibernate reserves a block of 50 ids per nextval, so the increment must match allocationSize.
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+-- On existing databases, start past the highest id. The pooled optimizer hands out
+-- (value - 49 .. value), so the first value has to clear max(id) by a full block.
+DO $$
+BEGIN
+    IF to_regclass('transactions') IS NOT NULL THEN
+        PERFORM setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50, false);
+    END IF;
+END
+$$;
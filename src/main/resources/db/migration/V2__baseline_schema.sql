@@ -0,0 +1,93 @@
+-- Schema as Hibernate generated it while ddl-auto was "update". On databases that
+-- Hibernate already created, every statement here is a no-op; on new databases it
+-- builds the schema from scratch. From here on, migrations own the schema.
+
+CREATE TABLE IF NOT EXISTS users (
+    id        bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email     varchar(255) NOT NULL UNIQUE,
+    full_name varchar(255) NOT NULL,
+    password  varchar(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    name       varchar(255) NOT NULL,
+    icon       varchar(255),
+    color      varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id          bigint NOT NULL PRIMARY KEY,
+    user_id     bigint NOT NULL REFERENCES users (id),
+    category_id bigint REFERENCES categories (id),
+    description varchar(255) NOT NULL,
+    category    varchar(255) NOT NULL,
+    amount      float(53) NOT NULL,
+    type        varchar(255) NOT NULL,
+    date        timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    category   varchar(255) NOT NULL,
+    amount     float(53) NOT NULL,
+    spent      float(53),
+    period     varchar(255),
+    month      integer,
+    year       integer,
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    title      varchar(255) NOT NULL,
+    message    varchar(500) NOT NULL,
+    type       varchar(255),
+    is_read    boolean NOT NULL,
+    created_at timestamp(6),
+    link       varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    token      varchar(255) NOT NULL UNIQUE,
+    expires_at timestamp(6) NOT NULL,
+    revoked    boolean NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS password_reset_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    token      varchar(255) NOT NULL UNIQUE,
+    expires_at timestamp(6) NOT NULL,
+    used       boolean NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    token      varchar(512) NOT NULL UNIQUE,
+    revoked_at timestamp(6) NOT NULL
+);
+
+-- Added for jti-based revocation; older databases may not have them yet
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS jti varchar(36);
+ALTER TABLE revoked_tokens ADD COLUMN IF NOT EXISTS expires_at timestamp(6);
+DO $$
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM pg_index i
+        JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = ANY (i.indkey)
+        WHERE i.indrelid = 'revoked_tokens'::regclass AND i.indisunique
+          AND i.indnatts = 1 AND a.attname = 'jti'
+    ) THEN
+        CREATE UNIQUE INDEX uk_revoked_tokens_jti ON revoked_tokens (jti);
+    END IF;
+END
+$$;
@@ -0,0 +1,53 @@
+-- Composite indexes for the per-user access paths. Every list, page and aggregate
+-- query filters by user_id first, then by date, type, category or period.
+
+-- transactions: keyset pages, newest first, overall and by type or category
+CREATE INDEX IF NOT EXISTS idx_transactions_user_date
+    ON transactions (user_id, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_type_date
+    ON transactions (user_id, type, date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transactions_user_category_date
+    ON transactions (user_id, category, date DESC, id DESC);
+-- category spending totals and category deletes
+CREATE INDEX IF NOT EXISTS idx_transactions_category_id
+    ON transactions (category_id);
+
+-- budgets: at most one budget per category and month. The service already refuses
+-- duplicates; any that slipped in are folded into the oldest row, which takes their
+-- combined spending and the largest limit, and then dropped.
+UPDATE budgets kept
+SET spent = dup.spent, amount = dup.amount
+FROM (SELECT MIN(id) AS id, SUM(COALESCE(spent, 0)) AS spent, MAX(amount) AS amount
+      FROM budgets
+      WHERE month IS NOT NULL AND year IS NOT NULL
+      GROUP BY user_id, category, month, year
+      HAVING COUNT(*) > 1) dup
+WHERE kept.id = dup.id;
+DELETE FROM budgets b
+USING budgets kept
+WHERE b.user_id = kept.user_id AND b.category = kept.category
+  AND b.month = kept.month AND b.year = kept.year
+  AND b.id > kept.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_budgets_user_category_period
+    ON budgets (user_id, category, month, year);
+CREATE INDEX IF NOT EXISTS idx_budgets_user_period
+    ON budgets (user_id, year, month);
+
+-- notifications: newest first, by type, and the unread count/bulk mark-as-read
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created
+    ON notifications (user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_type_created
+    ON notifications (user_id, type, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_unread
+    ON notifications (user_id) WHERE is_read = false;
+
+CREATE INDEX IF NOT EXISTS idx_categories_user_name
+    ON categories (user_id, name);
+
+-- token tables: per-user deletes and revocation sync
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user
+    ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_password_reset_tokens_user
+    ON password_reset_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_revoked_at
+    ON revoked_tokens (revoked_at);
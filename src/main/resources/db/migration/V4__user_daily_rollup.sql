@@ -0,0 +1,17 @@
+-- Per-user daily totals by category and type, kept in step with transactions by the
+-- same statements that write them. Summaries read this instead of the raw rows.
+CREATE TABLE IF NOT EXISTS user_daily_rollup (
+    user_id  bigint       NOT NULL REFERENCES users (id),
+    day      date         NOT NULL,
+    category varchar(255) NOT NULL,
+    type     varchar(255) NOT NULL,
+    sum      float(53)    NOT NULL,
+    count    bigint       NOT NULL,
+    PRIMARY KEY (user_id, day, category, type)
+);
+
+INSERT INTO user_daily_rollup (user_id, day, category, type, sum, count)
+SELECT user_id, CAST(date AS date), category, type, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY 1, 2, 3, 4
+ON CONFLICT (user_id, day, category, type) DO NOTHING;
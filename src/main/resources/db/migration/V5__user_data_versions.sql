@@ -0,0 +1,6 @@
+-- Per-user data version, bumped in the same transaction as every write that changes what
+-- the user sees. It backs the ETags on GET responses and tags cached summaries.
+CREATE TABLE IF NOT EXISTS user_data_versions (
+    user_id bigint PRIMARY KEY REFERENCES users (id),
+    version bigint NOT NULL
+);
@@ -0,0 +1,10 @@
+-- Highest alert threshold (percent of the budget) already notified for each budget.
+-- Alerts fire only when spending crosses a higher one; it drops back with the spending.
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS alerted_threshold integer NOT NULL DEFAULT 0;
+
+-- Budgets past a threshold have already been alerted, usually more than once
+UPDATE budgets SET alerted_threshold = CASE
+    WHEN amount > 0 AND spent >= amount THEN 100
+    WHEN amount > 0 AND spent >= 0.8 * amount THEN 80
+    ELSE 0
+END;
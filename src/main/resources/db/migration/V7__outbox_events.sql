@@ -0,0 +1,10 @@
+-- Side effects of a write, recorded in the write's own transaction and carried out by
+-- the outbox dispatcher afterwards. A row is deleted in the transaction that applies it.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    bigint NOT NULL REFERENCES users (id),
+    type       varchar(64) NOT NULL,
+    payload    text NOT NULL,
+    attempts   integer NOT NULL DEFAULT 0,
+    created_at timestamp(6) NOT NULL
+);
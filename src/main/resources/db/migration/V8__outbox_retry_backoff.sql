@@ -0,0 +1,8 @@
+-- Earliest time an outbox event may be delivered. Failed deliveries push it back
+-- exponentially, so a failing consumer is not retried in a tight loop.
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS available_at timestamp(6);
+UPDATE outbox_events SET available_at = created_at WHERE available_at IS NULL;
+ALTER TABLE outbox_events ALTER COLUMN available_at SET NOT NULL;
+
+-- Dispatchers claim per type, oldest first, among the events that are due
+CREATE INDEX IF NOT EXISTS idx_outbox_events_type_available ON outbox_events (type, available_at, id);
@@ -0,0 +1,21 @@
+-- Refresh tokens are stored as their SHA-256 hash: a fixed 32-byte key instead of the raw
+-- token, so a leaked table cannot be replayed. Existing tokens keep working because the
+-- hash is computed from the raw value they were issued with.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_hash bytea;
+UPDATE refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8')) WHERE token_hash IS NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+ALTER TABLE refresh_tokens DROP COLUMN IF EXISTS token;
+
+-- Every token rotated from the same login shares a family. Presenting a token that was
+-- already rotated revokes the whole family.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS family_id uuid;
+UPDATE refresh_tokens SET family_id = md5(random()::text || id::text)::uuid WHERE family_id IS NULL;
+ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS rotated_at timestamp(6);
+
+-- purge: expired rows, and revoked rows that were never rotated
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_revoked ON refresh_tokens (id) WHERE revoked AND rotated_at IS NULL;
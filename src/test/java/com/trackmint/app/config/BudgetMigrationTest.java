@@ -0,0 +1,46 @@
+package com.trackmint.app.config;
+
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetMigrationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Test
+    void duplicateBudgetsAreFoldedIntoTheOldestBeforeTheUniqueIndex() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS budget_migration");
+        jdbcTemplate.execute("CREATE DATABASE budget_migration");
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url.replace("/postgres?", "/budget_migration?"), "postgres", "postgres");
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+        database.update("INSERT INTO users (id, full_name, email, password) VALUES (1, 'Dup', 'dup@example.com', 'x')");
+        database.update("INSERT INTO budgets (id, user_id, category, amount, spent, month, year) VALUES " +
+                "(1, 1, 'Food', 100, 30, 3, 2026), " +
+                "(2, 1, 'Food', 150, 45, 3, 2026), " +
+                "(3, 1, 'Food', 120, NULL, 3, 2026), " +
+                "(4, 1, 'Rent', 500, 500, 3, 2026)");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        List<Map<String, Object>> budgets = database.queryForList(
+                "SELECT id, category, amount, spent FROM budgets ORDER BY id");
+        assertThat(budgets).containsExactly(
+                Map.of("id", 1L, "category", "Food", "amount", 150.0, "spent", 75.0),
+                Map.of("id", 4L, "category", "Rent", "amount", 500.0, "spent", 500.0));
+    }
+}
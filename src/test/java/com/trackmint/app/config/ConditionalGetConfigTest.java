@@ -0,0 +1,71 @@
+package com.trackmint.app.config;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.security.JwtUtil;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class ConditionalGetConfigTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String bearer;
+
+    @BeforeEach
+    void createUser() {
+        User user = saveUser("ETag Test");
+        bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+    }
+
+    @Test
+    void unchangedDataIsNotModifiedUntilTheNextWrite() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/summary").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        mockMvc.perform(get("/api/dashboard/summary").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/transactions").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Lunch\",\"category\":\"Food\",\"amount\":12.5,\"type\":\"EXPENSE\"}"))
+                .andExpect(status().is2xxSuccessful());
+
+        String next = mockMvc.perform(get("/api/dashboard/summary").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isNotEqualTo(etag);
+    }
+
+    @Test
+    void notificationsAreAlwaysServedFresh() throws Exception {
+        String etag = mockMvc.perform(get("/api/dashboard/summary").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/notifications").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+}
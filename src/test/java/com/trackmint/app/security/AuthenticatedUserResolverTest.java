@@ -0,0 +1,83 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthenticatedUserResolverTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void tokenModeBuildsThePrincipalFromTheClaims() {
+        AuthenticatedUserResolver resolver = resolver("token");
+
+        AuthenticatedUser principal = resolver.resolve(claims(7L, "ada@example.com"));
+
+        assertThat(principal.getId()).isEqualTo(7L);
+        assertThat(principal.getEmail()).isEqualTo("ada@example.com");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void tokensWithoutAUserIdAreLookedUpOnceByEmail() {
+        when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(user(7L, "ada@example.com")));
+        AuthenticatedUserResolver resolver = resolver("token");
+
+        AuthenticatedUser first = resolver.resolve(claims(null, "ada@example.com"));
+        AuthenticatedUser second = resolver.resolve(claims(null, "ada@example.com"));
+
+        assertThat(first.getId()).isEqualTo(7L);
+        assertThat(second.getId()).isEqualTo(7L);
+        verify(userRepository, times(1)).findByEmail("ada@example.com");
+    }
+
+    @Test
+    void databaseModeTakesTheIdFromTheStoredUser() {
+        when(userRepository.findByEmail("ada@example.com")).thenReturn(Optional.of(user(7L, "ada@example.com")));
+        AuthenticatedUserResolver resolver = resolver("database");
+
+        AuthenticatedUser principal = resolver.resolve(claims(99L, "ada@example.com"));
+
+        assertThat(principal.getId()).isEqualTo(7L);
+        verify(userRepository).findByEmail("ada@example.com");
+    }
+
+    @Test
+    void missingUsersResolveToNullAndAreNotCached() {
+        when(userRepository.findByEmail("gone@example.com")).thenReturn(Optional.empty());
+        AuthenticatedUserResolver resolver = resolver("database");
+
+        assertThat(resolver.resolve(claims(7L, "gone@example.com"))).isNull();
+
+        // Registered again under the same email: found on the next request
+        when(userRepository.findByEmail("gone@example.com")).thenReturn(Optional.of(user(8L, "gone@example.com")));
+        assertThat(resolver.resolve(claims(8L, "gone@example.com")).getId()).isEqualTo(8L);
+    }
+
+    private AuthenticatedUserResolver resolver(String principalSource) {
+        return new AuthenticatedUserResolver(userRepository, principalSource, Duration.ofSeconds(30), 100);
+    }
+
+    private static JwtClaims claims(Long userId, String email) {
+        return new JwtClaims(userId, email, "jti-" + email, new Date(System.currentTimeMillis() + 60_000));
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,104 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.exception.AppException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void overflowIsRefusedAtOnceWhileThePoolIsBusy() throws Exception {
+        SlowEncoder slow = new SlowEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 2, 2, Duration.ofSeconds(5));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> accepted = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                accepted.add(callers.submit(() -> encoder.encode("password")));
+            }
+            assertThat(slow.started.await(5, TimeUnit.SECONDS)).isTrue();
+            while (encoder.queued() < 2) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> encoder.matches("password", "hash"))
+                    .isInstanceOfSatisfying(AppException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+            assertThat(encoder.rejected()).isEqualTo(1);
+
+            slow.release.countDown();
+            for (Future<String> future : accepted) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+            }
+            assertThat(slow.maxRunning.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void queuedHashesAreDroppedBeforeStartingWhileStartedOnesFinish() throws Exception {
+        SlowEncoder slow = new SlowEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofMillis(50));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = callers.submit(() -> encoder.encode("password"));
+            while (slow.calls.get() < 1) {
+                Thread.sleep(5);
+            }
+
+            assertThatThrownBy(() -> encoder.encode("password"))
+                    .isInstanceOfSatisfying(AppException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(encoder.rejected()).isEqualTo(1);
+            assertThat(encoder.queued()).isZero();
+
+            // Well past the timeout, but already running: the caller still gets its hash
+            Thread.sleep(100);
+            slow.release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("encoded");
+            assertThat(slow.calls.get()).isEqualTo(1);
+        }
+    }
+
+    // Holds every call until released, counting how many run at once
+    private static final class SlowEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls.incrementAndGet();
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return "encoded";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
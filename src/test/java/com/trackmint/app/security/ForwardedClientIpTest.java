@@ -0,0 +1,47 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the real server, since the forwarded address is resolved by Tomcat rather
+// than by anything MockMvc goes through
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+        "app.security.login-throttle.per-ip=2",
+        "app.security.login-throttle.per-email=100"
+})
+class ForwardedClientIpTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void clientsBehindTheProxyGetTheirOwnLoginBuckets() {
+        assertThat(login("203.0.113.10")).isEqualTo(401);
+        assertThat(login("203.0.113.10")).isEqualTo(401);
+        assertThat(login("203.0.113.10")).isEqualTo(429);
+
+        assertThat(login("198.51.100.20")).isEqualTo(401);
+        assertThat(login("198.51.100.20")).isEqualTo(401);
+        assertThat(login("198.51.100.20")).isEqualTo(429);
+    }
+
+    private int login(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        String body = "{\"email\":\"" + UUID.randomUUID() + "@example.com\",\"password\":\"wrong-password\"}";
+        return restTemplate.postForEntity("/api/auth/login", new HttpEntity<>(body, headers), String.class)
+                .getStatusCode().value();
+    }
+}
@@ -0,0 +1,52 @@
+package com.trackmint.app.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of access token verification.
+// Run with: mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test
+//           -Dexec.args="-cp %classpath org.openjdk.jmh.Main JwtVerificationBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "trackmintSecretKeyTrackmintSecretKey123456";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 86400000L);
+        token = jwtUtil.generateToken(1L, "bench@trackmint.app");
+    }
+
+    // Previous filter path: extractEmail + isTokenValid, each rebuilding key and parser
+    @Benchmark
+    public boolean legacyVerification() {
+        String email = legacyClaims(token).getSubject();
+        return legacyClaims(token).getSubject().equals(email)
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public JwtClaims singleParseVerification() {
+        return jwtUtil.parseToken(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
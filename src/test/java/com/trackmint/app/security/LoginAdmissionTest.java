@@ -0,0 +1,105 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.repository.UserRepository;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "app.security.bcrypt-strength=12",
+        "app.security.password-hashing.threads=1",
+        "app.security.password-hashing.queue-size=1",
+        "app.security.login-throttle.per-ip=1000",
+        "app.security.login-throttle.per-email=3"
+})
+class LoginAdmissionTest extends EmbeddedPostgresTest {
+
+    private static final int STORM = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void aLoginStormIsShedWithoutSlowingTheRestOfTheApi() throws Exception {
+        User user = saveUser("Storm", new BCryptPasswordEncoder(4).encode("unused"));
+        String bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+
+        List<Future<Integer>> logins = new ArrayList<>();
+        List<Duration> dashboard = new ArrayList<>();
+        try (ExecutorService storm = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < STORM; i++) {
+                String email = UUID.randomUUID() + "@example.com";
+                logins.add(storm.submit(() -> login(email, "wrong-password")));
+            }
+            for (int i = 0; i < 10; i++) {
+                long start = System.nanoTime();
+                mockMvc.perform(get("/api/dashboard/summary").header(HttpHeaders.AUTHORIZATION, bearer))
+                        .andExpect(status().isOk());
+                dashboard.add(Duration.ofNanos(System.nanoTime() - start));
+            }
+
+            List<Integer> statuses = new ArrayList<>();
+            for (Future<Integer> login : logins) {
+                statuses.add(login.get());
+            }
+            assertThat(statuses).contains(429);
+            assertThat(statuses).allMatch(code -> code == 401 || code == 429);
+        }
+        assertThat(dashboard).allMatch(took -> took.compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    void repeatedAttemptsOnOneEmailAreThrottled() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        for (int i = 0; i < 3; i++) {
+            assertThat(login(email, "wrong-password")).isEqualTo(401);
+        }
+        assertThat(login(email, "wrong-password")).isEqualTo(429);
+        assertThat(login(email.toUpperCase(), "wrong-password")).isEqualTo(429);
+        assertThat(login(UUID.randomUUID() + "@example.com", "wrong-password")).isEqualTo(401);
+    }
+
+    @Test
+    void weakerHashesAreUpgradedOnLogin() throws Exception {
+        User user = saveUser("Rehash", new BCryptPasswordEncoder(4).encode("correct-horse"));
+
+        assertThat(login(user.getEmail(), "correct-horse")).isEqualTo(200);
+
+        String stored = userRepository.findById(user.getId()).orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$12$");
+        assertThat(login(user.getEmail(), "correct-horse")).isEqualTo(200);
+    }
+
+    private int login(String email, String password) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}"))
+                .andReturn().getResponse().getStatus();
+    }
+}
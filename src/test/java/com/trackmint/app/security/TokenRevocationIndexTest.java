@@ -0,0 +1,90 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationIndexTest {
+
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+
+    @Test
+    void revokedTokensAreFoundAndOthersAreNot() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 1 << 16);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 1000; i++) {
+            index.revoke("revoked-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(index.isRevoked("revoked-" + i)).isTrue();
+            assertThat(index.isRevoked("active-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    void bloomFalsePositivesAreConfirmedAgainstTheSet() {
+        // 64 bits for 200 tokens: nearly every lookup gets past the filter
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 64);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        for (int i = 0; i < 200; i++) {
+            index.revoke("revoked-" + i, expiresAt);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            assertThat(index.isRevoked("revoked-" + i)).isTrue();
+            assertThat(index.isRevoked("active-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    void alreadyExpiredTokensAreNotIndexed() {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 1 << 16);
+
+        index.revoke("expired", System.currentTimeMillis() - 1);
+
+        assertThat(index.isRevoked("expired")).isFalse();
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesAndKeepsTheRest() throws Exception {
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 1 << 16);
+        index.revoke("short-lived", System.currentTimeMillis() + 50);
+        List<String> kept = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            kept.add("long-lived-" + i);
+            index.revoke("long-lived-" + i, System.currentTimeMillis() + 60_000);
+        }
+        assertThat(index.isRevoked("short-lived")).isTrue();
+
+        Thread.sleep(100);
+        index.purgeExpired();
+
+        assertThat(index.isRevoked("short-lived")).isFalse();
+        // The rebuilt filter still covers every live entry
+        assertThat(kept).allMatch(index::isRevoked);
+    }
+
+    @Test
+    void loadIndexesActiveRevocationsFromTheDatabase() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(10);
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {"persisted-1", expiresAt});
+        rows.add(new Object[] {"persisted-2", expiresAt});
+        when(repository.findActiveRevocations(any(), any())).thenReturn(rows);
+        TokenRevocationIndex index = new TokenRevocationIndex(repository, 1 << 16);
+
+        index.load();
+
+        assertThat(index.isRevoked("persisted-1")).isTrue();
+        assertThat(index.isRevoked("persisted-2")).isTrue();
+        assertThat(index.isRevoked("persisted-3")).isFalse();
+    }
+}
@@ -0,0 +1,54 @@
+package com.trackmint.app.security;
+
+import com.trackmint.app.entity.RevokedToken;
+import com.trackmint.app.repository.RevokedTokenRepository;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationSyncTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Test
+    void syncPicksUpRevocationsMadeOnAnotherNode() {
+        // Not the application's bean, so its scheduled sync cannot run in between
+        TokenRevocationIndex index = new TokenRevocationIndex(revokedTokenRepository, 1 << 16);
+        index.load();
+        // Written straight to the table, as another node's logout would be
+        String jti = revokedElsewhere(LocalDateTime.now().plusMinutes(10));
+        assertThat(index.isRevoked(jti)).isFalse();
+
+        index.sync();
+
+        assertThat(index.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    void startupLoadsActiveRevocationsOnly() {
+        String active = revokedElsewhere(LocalDateTime.now().plusMinutes(10));
+        String expired = revokedElsewhere(LocalDateTime.now().minusMinutes(1));
+        TokenRevocationIndex restarted = new TokenRevocationIndex(revokedTokenRepository, 1 << 16);
+
+        restarted.load();
+
+        assertThat(restarted.isRevoked(active)).isTrue();
+        assertThat(restarted.isRevoked(expired)).isFalse();
+    }
+
+    private String revokedElsewhere(LocalDateTime expiresAt) {
+        String jti = UUID.randomUUID().toString();
+        RevokedToken token = new RevokedToken();
+        token.setToken("token-" + jti);
+        token.setJti(jti);
+        token.setRevokedAt(LocalDateTime.now());
+        token.setExpiresAt(expiresAt);
+        revokedTokenRepository.save(token);
+        return jti;
+    }
+}
@@ -0,0 +1,120 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthTokenPurgeJobTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private AuthTokenPurgeJob purgeJob;
+
+    @Autowired
+    private RefreshTokenService refreshTokens;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = saveUser("Purge " + UUID.randomUUID());
+    }
+
+    @Test
+    void expiredRowsAreDeletedInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> expiredRevocations = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            expiredRevocations.add(revocation(now.minusHours(1), now.minusHours(2)));
+            resetToken(now.minusMinutes(1));
+        }
+        // Written before jti support: no expiry, only dropped once older than an access token lifetime
+        expiredRevocations.add(revocation(null, now.minusDays(2)));
+        String keptRevocation = revocation(now.plusHours(1), now);
+        String keptLegacyRevocation = revocation(null, now.minusMinutes(5));
+        String keptReset = resetToken(now.plusMinutes(10));
+
+        String expired = refreshTokens.issue(user);
+        String loggedOut = refreshTokens.issue(user);
+        String live = refreshTokens.issue(user);
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = ? WHERE token_hash = ?",
+                now.minusDays(1), RefreshTokenService.hash(expired));
+        refreshTokens.revoke(loggedOut);
+        double before = deleted("revoked_tokens");
+        long purges = meterRegistry.timer("trackmint.purge.duration").count();
+
+        assertThat(purgeJob.purge(3)).isGreaterThanOrEqualTo(17);
+
+        assertThat(jdbcTemplate.queryForList("SELECT token FROM revoked_tokens", String.class))
+                .contains(keptRevocation, keptLegacyRevocation)
+                .doesNotContainAnyElementsOf(expiredRevocations);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT token FROM password_reset_tokens WHERE user_id = ?", String.class, user.getId()))
+                .containsExactly(keptReset);
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT token_hash FROM refresh_tokens WHERE user_id = ?", byte[].class, user.getId()))
+                .containsExactly(RefreshTokenService.hash(live));
+        assertThat(deleted("revoked_tokens") - before).isGreaterThanOrEqualTo(8.0);
+        assertThat(meterRegistry.timer("trackmint.purge.duration").count()).isGreaterThan(purges);
+    }
+
+    @Test
+    void onlyOneNodePurgesAtATime() {
+        resetToken(LocalDateTime.now().minusMinutes(1));
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(hashtext('trackmint.job." + AuthTokenPurgeJob.JOB + "'))");
+                try {
+                    purgeJob.run();
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(hashtext('trackmint.job." + AuthTokenPurgeJob.JOB + "'))");
+                }
+            }
+            return null;
+        });
+        assertThat(resetTokens()).isEqualTo(1);
+
+        purgeJob.run();
+        assertThat(resetTokens()).isZero();
+    }
+
+    private long resetTokens() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM password_reset_tokens WHERE user_id = ?", Long.class, user.getId());
+    }
+
+    private String revocation(LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        String token = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token, jti, revoked_at, expires_at) VALUES (?, ?, ?, ?)",
+                token, expiresAt != null ? token : null, revokedAt, expiresAt);
+        return token;
+    }
+
+    private String resetToken(LocalDateTime expiresAt) {
+        String token = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO password_reset_tokens (user_id, token, expires_at, used) VALUES (?, ?, ?, false)",
+                user.getId(), token, expiresAt);
+        return token;
+    }
+
+    private double deleted(String table) {
+        return meterRegistry.counter("trackmint.purge.deleted", "table", table).count();
+    }
+}
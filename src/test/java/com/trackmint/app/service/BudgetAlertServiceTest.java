@@ -0,0 +1,96 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.BudgetRequestDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetAlertServiceTest extends EmbeddedPostgresTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 4, 8, 12, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long budgetId;
+
+    @BeforeEach
+    void createBudget() {
+        userId = createUser("Budget Alert Test");
+
+        BudgetRequestDTO budget = new BudgetRequestDTO();
+        budget.setCategory("Food");
+        budget.setAmount(100.0);
+        budget.setMonth(DATE.getMonthValue());
+        budget.setYear(DATE.getYear());
+        budgetId = budgetService.createBudget(userId, budget).getId();
+    }
+
+    @Test
+    void alertsOncePerThresholdNotPerExpense() {
+        for (int i = 0; i < 100; i++) {
+            expense(5.0);
+        }
+
+        // 500% spent: one warning at 80%, one at 100%
+        assertThat(alerts()).containsExactly("BUDGET_WARNING", "BUDGET_EXCEEDED");
+
+        budgetService.updateSpent(userId, budgetId, 450.0);
+        BudgetRequestDTO raise = new BudgetRequestDTO();
+        raise.setAmount(90.0);
+        budgetService.updateBudget(userId, budgetId, raise);
+        assertThat(alerts()).hasSize(2);
+    }
+
+    @Test
+    void droppingBackBelowAThresholdRearmsIt() {
+        expense(50.0);
+        Long second = expense(35.0);
+        assertThat(alerts()).containsExactly("BUDGET_WARNING");
+
+        transactionService.deleteTransaction(userId, second);
+        expense(10.0);
+        assertThat(alerts()).containsExactly("BUDGET_WARNING");
+
+        Long fourth = expense(25.0);
+        assertThat(alerts()).containsExactly("BUDGET_WARNING", "BUDGET_WARNING");
+
+        transactionService.updateTransaction(userId, fourth, request(200.0));
+        assertThat(alerts()).containsExactly("BUDGET_WARNING", "BUDGET_WARNING", "BUDGET_EXCEEDED");
+    }
+
+    private List<String> alerts() {
+        awaitOutbox();
+        return jdbcTemplate.queryForList(
+                "SELECT type FROM notifications WHERE user_id = ? AND type LIKE 'BUDGET_%' ORDER BY id",
+                String.class, userId);
+    }
+
+    private Long expense(double amount) {
+        return transactionService.addTransaction(userId, request(amount)).getId();
+    }
+
+    private TransactionRequestDTO request(double amount) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription("Groceries");
+        dto.setCategory("Food");
+        dto.setAmount(amount);
+        dto.setType("EXPENSE");
+        dto.setDate(DATE);
+        return dto;
+    }
+}
@@ -0,0 +1,137 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.BudgetRequestDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BudgetSpentConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final int THREADS = 8;
+    private static final int EXPENSES = 200;
+    private static final double AMOUNT = 1.25;
+    private static final LocalDateTime DATE = LocalDateTime.of(2026, 5, 12, 10, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createBudget() {
+        userId = createUser("Budget Concurrency Test");
+
+        BudgetRequestDTO budget = new BudgetRequestDTO();
+        budget.setCategory("Food");
+        budget.setAmount(1_000_000.0);
+        budget.setMonth(DATE.getMonthValue());
+        budget.setYear(DATE.getYear());
+        budgetService.createBudget(userId, budget);
+    }
+
+    @Test
+    void concurrentWritesAddUpOnOneBudget() throws Exception {
+        List<Callable<Long>> adds = new ArrayList<>();
+        for (int i = 0; i < EXPENSES; i++) {
+            String description = "Snack " + i;
+            adds.add(() -> transactionService.addTransaction(userId, expense(description, AMOUNT)).getId());
+        }
+        List<Long> ids = runAll(adds);
+
+        assertThat(spent()).isEqualTo(EXPENSES * AMOUNT);
+
+        // Delete the first 80 and double the next 40, all at once
+        List<Callable<Long>> changes = new ArrayList<>();
+        for (Long id : ids.subList(0, 80)) {
+            changes.add(() -> {
+                transactionService.deleteTransaction(userId, id);
+                return id;
+            });
+        }
+        for (Long id : ids.subList(80, 120)) {
+            changes.add(() -> transactionService.updateTransaction(userId, id, expense(null, 2 * AMOUNT)).getId());
+        }
+        Collections.shuffle(changes);
+        runAll(changes);
+
+        double expected = (EXPENSES - 80 + 40) * AMOUNT;
+        assertThat(spent()).isEqualTo(expected);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT SUM(amount) FROM transactions WHERE user_id = ?", Double.class, userId))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void updatesMoveSpentToTheTransactionsMonth() {
+        BudgetRequestDTO june = new BudgetRequestDTO();
+        june.setCategory("Food");
+        june.setAmount(100.0);
+        june.setMonth(6);
+        june.setYear(DATE.getYear());
+        budgetService.createBudget(userId, june);
+
+        Long id = transactionService.addTransaction(userId, expense("Groceries", 40.0)).getId();
+        TransactionRequestDTO moved = expense(null, 90.0);
+        moved.setDate(DATE.withMonth(6));
+        transactionService.updateTransaction(userId, id, moved);
+
+        assertThat(spent(DATE.getMonthValue())).isEqualTo(0.0);
+        assertThat(spent(6)).isEqualTo(90.0);
+
+        transactionService.deleteTransaction(userId, id);
+        assertThat(spent(6)).isEqualTo(0.0);
+    }
+
+    private List<Long> runAll(List<Callable<Long>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Long> results = new ArrayList<>(tasks.size());
+            for (Future<Long> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double spent() {
+        return spent(DATE.getMonthValue());
+    }
+
+    private double spent(int month) {
+        awaitOutbox();
+        return jdbcTemplate.queryForObject(
+                "SELECT spent FROM budgets WHERE user_id = ? AND category = 'Food' AND month = ?",
+                Double.class, userId, month);
+    }
+
+    private TransactionRequestDTO expense(String description, double amount) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription(description);
+        dto.setCategory("Food");
+        dto.setAmount(amount);
+        dto.setType("EXPENSE");
+        dto.setDate(DATE);
+        return dto;
+    }
+}
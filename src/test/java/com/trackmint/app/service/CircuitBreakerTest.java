@@ -0,0 +1,85 @@
+package com.trackmint.app.service;
+
+import org.junit.jupiter.api.Test;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(30), clock);
+
+    @Test
+    void opensAfterConsecutiveFailuresAndLetsOneProbeThroughPerWindow() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.allowRequest()).isTrue();
+
+        breaker.recordFailure();
+        assertThat(breaker.isOpen()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isFalse();
+
+        breaker.recordFailure();
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(breaker.allowRequest()).isFalse();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(breaker.allowRequest()).isTrue();
+        breaker.recordSuccess();
+        assertThat(breaker.isOpen()).isFalse();
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+
+    @Test
+    void checkingDoesNotUseUpTheProbe() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertThat(breaker.canRequest()).isFalse();
+
+        clock.advance(Duration.ofSeconds(30));
+        for (int i = 0; i < 5; i++) {
+            assertThat(breaker.canRequest()).isTrue();
+        }
+        assertThat(breaker.allowRequest()).isTrue();
+        assertThat(breaker.canRequest()).isFalse();
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
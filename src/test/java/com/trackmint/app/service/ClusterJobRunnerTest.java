@@ -0,0 +1,96 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.JobRun;
+import com.trackmint.app.repository.JobRunRepository;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClusterJobRunnerTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private ClusterJobRunner jobs;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void runsAreRecordedWithTheirOutcome() {
+        String job = "test-" + UUID.randomUUID();
+
+        assertThat(jobs.run(job, () -> { })).isTrue();
+        assertThat(jobs.run(job, () -> {
+            throw new IllegalStateException("boom");
+        })).isTrue();
+
+        List<JobRun> history = jobRunRepository.findTop20ByJobNameOrderByStartedAtDescIdDesc(job);
+        assertThat(history).extracting(JobRun::getStatus).containsExactly("FAILED", "SUCCEEDED");
+        assertThat(history.get(0).getError()).contains("boom");
+        assertThat(history).allSatisfy(run -> assertThat(run.getFinishedAt()).isNotNull());
+        assertThat(meterRegistry.find("trackmint.jobs.duration").tag("job", job).timers()).hasSize(2);
+    }
+
+    @Test
+    void aJobStillRunningOnThisNodeIsNotStartedAgain() throws Exception {
+        String job = "test-" + UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> jobs.run(job, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicInteger ran = new AtomicInteger();
+        assertThat(jobs.run(job, ran::incrementAndGet)).isFalse();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).hasValue(0);
+        assertThat(meterRegistry.counter("trackmint.jobs.skipped", "job", job).count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void aJobLockedByAnotherNodeIsSkipped() {
+        String job = "test-" + UUID.randomUUID();
+        AtomicInteger ran = new AtomicInteger();
+        Boolean result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SELECT pg_advisory_lock(hashtext('trackmint.job." + job + "'))");
+                try {
+                    return jobs.run(job, ran::incrementAndGet);
+                } finally {
+                    statement.execute("SELECT pg_advisory_unlock(hashtext('trackmint.job." + job + "'))");
+                }
+            }
+        });
+
+        assertThat(result).isFalse();
+        assertThat(ran).hasValue(0);
+        assertThat(jobRunRepository.findTop20ByJobNameOrderByStartedAtDescIdDesc(job)).isEmpty();
+        assertThat(jobs.run(job, ran::incrementAndGet)).isTrue();
+        assertThat(ran).hasValue(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.config.StatementCounter;
+import com.trackmint.app.dto.DashboardSummaryDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DashboardServiceTest extends EmbeddedPostgresTest {
+
+    // One aggregate query plus the recent-transactions query
+    private static final long DASHBOARD_STATEMENTS = 2;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Long userId;
+
+    @BeforeEach
+    void createTransactions() {
+        userId = createUser("Dashboard Test");
+
+        LocalDateTime now = LocalDateTime.now();
+        insert("Salary", "Income", 1000.0, "INCOME", now.minusDays(20));
+        insert("Rent", "Housing", 400.0, "EXPENSE", now.minusDays(15));
+        insert("Groceries", "Food", 50.0, "EXPENSE", now.minusDays(1));
+        insert("Dinner", "Food", 30.0, "EXPENSE", now.minusHours(1));
+        for (int i = 0; i < 10; i++) {
+            insert("Coffee " + i, "Food", 2.0, "EXPENSE", now.minusDays(30 + i));
+        }
+    }
+
+    @Test
+    void dashboardSummaryRunsInTwoStatements() {
+        StatementCounter.reset();
+
+        DashboardSummaryDTO summary = dashboardService.getDashboardSummary(userId);
+
+        assertThat(StatementCounter.current()).isEqualTo(DASHBOARD_STATEMENTS);
+        assertThat(summary.getTotalIncome()).isEqualTo(1000.0);
+        assertThat(summary.getTotalExpenses()).isEqualTo(500.0);
+        assertThat(summary.getTotalBalance()).isEqualTo(500.0);
+        assertThat(summary.getCategorySpending())
+                .containsOnlyKeys("Housing", "Food")
+                .containsEntry("Housing", 400.0)
+                .containsEntry("Food", 100.0);
+        assertThat(summary.getWeeklySpending()).hasSize(7);
+        assertThat(summary.getWeeklySpending().values().stream().mapToDouble(Double::doubleValue).sum())
+                .isEqualTo(80.0);
+        assertThat(summary.getRecentTransactions())
+                .extracting(transaction -> transaction.getDescription())
+                .containsExactly("Dinner", "Groceries", "Rent", "Salary", "Coffee 0");
+    }
+
+    @Test
+    void transactionSummaryRunsInTwoStatements() {
+        StatementCounter.reset();
+
+        DashboardSummaryDTO summary = transactionService.getDashboardSummary(userId);
+
+        assertThat(StatementCounter.current()).isEqualTo(DASHBOARD_STATEMENTS);
+        assertThat(summary.getTotalSavings()).isEqualTo(500.0);
+        assertThat(summary.getCategorySpending()).containsEntry("Food", 100.0);
+        assertThat(summary.getRecentTransactions()).hasSize(5);
+    }
+
+    private void insert(String description, String category, double amount,
+                        String type, LocalDateTime date) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription(description);
+        dto.setCategory(category);
+        dto.setAmount(amount);
+        dto.setType(type);
+        dto.setDate(date);
+        transactionService.addTransaction(userId, dto);
+    }
+}
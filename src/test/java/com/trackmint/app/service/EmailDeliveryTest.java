@@ -0,0 +1,83 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.dto.ForgotPasswordRequestDTO;
+import com.trackmint.app.entity.User;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import com.trackmint.app.support.ResendStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailDeliveryTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void forgotPasswordQueuesTheEmailAndRetriesUntilResendAcceptsIt() throws Exception {
+        User user = saveUser("Email Test");
+
+        ResendStub.failNext(2);
+        ForgotPasswordRequestDTO dto = new ForgotPasswordRequestDTO();
+        dto.setEmail(user.getEmail());
+        authService.forgotPassword(dto);
+
+        long deadline = System.currentTimeMillis() + 15_000;
+        List<ResendStub.Request> sent = sentTo(user.getEmail());
+        while (sent.stream().noneMatch(request -> request.status() == 200)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            sent = sentTo(user.getEmail());
+        }
+
+        assertThat(sent).extracting(ResendStub.Request::status).containsExactly(503, 503, 200);
+        assertThat(sent.get(2).authorization()).isEqualTo("Bearer re_test");
+        assertThat(sent.get(2).body()).contains("TrackMint - Reset Your Password", "/reset-password?token=");
+        awaitOutbox();
+    }
+
+    @Test
+    void emailsQueuedPastTheResetLinkExpiryAreDroppedUnsent() throws Exception {
+        User user = saveUser("Stale Email Test");
+        Long userId = user.getId();
+        String email = user.getEmail();
+        LocalDateTime queuedAt = LocalDateTime.now().minusMinutes(20);
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO outbox_events (user_id, type, payload, created_at, available_at) " +
+                "VALUES (?, ?, ?, ?, ?) RETURNING id", Long.class,
+                userId, ResendEmailSender.TYPE,
+                "{\"to\":\"" + email + "\",\"subject\":\"Stale\",\"html\":\"<p>Stale</p>\"}",
+                queuedAt, queuedAt);
+
+        awaitOutbox();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM outbox_events WHERE id = ?", Long.class, id)).isZero();
+        assertThat(sentTo(email)).isEmpty();
+    }
+
+    @Test
+    void withoutAnApiKeyTheSenderTakesNothingFromTheOutbox() {
+        ResendEmailSender sender = new ResendEmailSender(new ObjectMapper(), new SimpleMeterRegistry(),
+                "", ResendStub.url(), "TrackMint <test@example.com>", Duration.ofSeconds(5),
+                Duration.ofSeconds(10), 5, Duration.ofSeconds(30), Duration.ofMinutes(15));
+
+        assertThat(sender.ready()).isFalse();
+    }
+
+    private List<ResendStub.Request> sentTo(String email) {
+        return ResendStub.requests().stream()
+                .filter(request -> request.body().contains(email))
+                .toList();
+    }
+}
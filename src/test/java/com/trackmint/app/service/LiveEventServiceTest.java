@@ -0,0 +1,149 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.entity.User;
+import com.trackmint.app.security.JwtUtil;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class LiveEventServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private LiveEventService liveEventService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private String bearer;
+
+    @BeforeEach
+    void createUser() {
+        User user = saveUser("Stream Test");
+        userId = user.getId();
+        bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+    }
+
+    @Test
+    void committedChangesArePushedToTheUsersStream() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/events/stream").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = stream.getResponse();
+
+        TransactionRequestDTO lunch = new TransactionRequestDTO();
+        lunch.setDescription("Lunch");
+        lunch.setCategory("Food");
+        lunch.setAmount(12.5);
+        lunch.setType("EXPENSE");
+        Long id = transactionService.addTransaction(userId, lunch).getId();
+        notificationService.createBudgetAlert(userId, "Food", 90, 90, 100);
+        // Rolled back: the row does not exist, so nothing is published
+        try {
+            transactionService.deleteTransaction(userId, id + 1_000_000);
+        } catch (RuntimeException expected) {
+        }
+        transactionService.deleteTransaction(userId, id);
+
+        String body = awaitEvents(response, 3);
+        assertThat(body).contains("event:notification")
+                .contains("\"title\":\"Budget Alert: Food\"");
+        assertThat(body).contains("event:dashboard\ndata:{\"income\":0.0,\"expenses\":12.5,"
+                + "\"categorySpending\":{\"Food\":12.5},\"resync\":false}");
+        assertThat(body).contains("event:dashboard\ndata:{\"income\":0.0,\"expenses\":-12.5,"
+                + "\"categorySpending\":{\"Food\":-12.5},\"resync\":false}");
+        assertThat(body.split("event:dashboard", -1)).hasSize(3);
+    }
+
+    @Test
+    void otherUsersStreamsStayQuiet() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/events/stream").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        notificationService.createBudgetAlert(createUser("Someone Else"), "Rent", 120, 600, 500);
+
+        Thread.sleep(200);
+        assertThat(stream.getResponse().getContentAsString()).doesNotContain("event:");
+    }
+
+    @Test
+    void eventsPublishedByAnotherNodeReachLocalStreams() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/events/stream").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // What another node's publish sends; this node only sees it through LISTEN
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)::text", LiveEventService.CHANNEL,
+                "{\"userId\":" + userId + ",\"name\":\"dashboard\",\"payload\":{\"resync\":true}}");
+
+        assertThat(awaitEvents(stream.getResponse(), 1)).contains("event:dashboard\ndata:{\"resync\":true}");
+    }
+
+    @Test
+    void rolledBackPublishesAreNeverSent() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/events/stream").header(HttpHeaders.AUTHORIZATION, bearer))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            liveEventService.publish(userId, LiveEventService.DASHBOARD, Map.of("attempt", "rolled back"));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                liveEventService.publish(userId, LiveEventService.DASHBOARD, Map.of("attempt", "committed")));
+
+        awaitEvents(stream.getResponse(), 1);
+        // Give a wrongly sent first event time to arrive too
+        Thread.sleep(200);
+        assertThat(stream.getResponse().getContentAsString()).contains("\"attempt\":\"committed\"").doesNotContain("rolled back");
+    }
+
+    // Events are written by a background thread, so the body fills in shortly after commit
+    private String awaitEvents(MockHttpServletResponse response, int events) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = response.getContentAsString();
+        while (body.split("event:", -1).length <= events && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = response.getContentAsString();
+        }
+        return body;
+    }
+
+    @Test
+    void streamRequiresAToken() throws Exception {
+        mockMvc.perform(get("/api/events/stream"))
+                .andExpect(status().isForbidden());
+    }
+}
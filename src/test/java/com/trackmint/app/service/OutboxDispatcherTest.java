@@ -0,0 +1,96 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.BudgetRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxDispatcherTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private OutboxService outbox;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long userId;
+
+    @BeforeEach
+    void createBudget() {
+        userId = createUser("Outbox Test");
+
+        BudgetRequestDTO budget = new BudgetRequestDTO();
+        budget.setCategory("Food");
+        budget.setAmount(100.0);
+        budget.setMonth(3);
+        budget.setYear(2026);
+        budgetService.createBudget(userId, budget);
+    }
+
+    @Test
+    void eventsAreOnlyDeliveredOnceTheirTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change("Food", 3, 2026, 30.0));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change("Food", 3, 2026, 12.0));
+            outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change("Food", 3, 2026, 8.0));
+        });
+        awaitOutbox();
+
+        assertThat(spent()).isEqualTo(20.0);
+        assertThat(meterRegistry.find("trackmint.outbox.lag").timer()).isNotNull();
+        assertThat(meterRegistry.counter("trackmint.outbox.delivered", "type", BudgetSpentConsumer.TYPE).count())
+                .isGreaterThanOrEqualTo(2.0);
+    }
+
+    @Test
+    void aBadEventDoesNotHoldBackTheRestOfItsBatch() throws Exception {
+        Long bad = transactionTemplate.execute(status -> {
+            outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change("Food", 3, 2026, 5.0));
+            Long id = jdbcTemplate.queryForObject(
+                    "INSERT INTO outbox_events (user_id, type, payload, created_at, available_at) " +
+                    "VALUES (?, ?, 'not json', ?, ?) RETURNING id", Long.class,
+                    userId, BudgetSpentConsumer.TYPE, LocalDateTime.now(), LocalDateTime.now());
+            outbox.publish(userId, BudgetSpentConsumer.TYPE, new BudgetSpentConsumer.Change("Food", 3, 2026, 7.0));
+            return id;
+        });
+        try {
+            long deadline = System.currentTimeMillis() + 10_000;
+            while ((attempts(bad) == 0 || spent() < 12.0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertThat(attempts(bad)).isPositive();
+            assertThat(spent()).isEqualTo(12.0);
+        } finally {
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE id = ?", bad);
+        }
+    }
+
+    private int attempts(Long id) {
+        return jdbcTemplate.queryForObject("SELECT attempts FROM outbox_events WHERE id = ?", Integer.class, id);
+    }
+
+    private double spent() {
+        return jdbcTemplate.queryForObject(
+                "SELECT spent FROM budgets WHERE user_id = ? AND category = 'Food'", Double.class, userId);
+    }
+}
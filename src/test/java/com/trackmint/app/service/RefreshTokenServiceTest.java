@@ -0,0 +1,90 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokens;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = saveUser("Refresh " + UUID.randomUUID());
+    }
+
+    @Test
+    void onlyTheHashIsStoredAndEachRefreshRotates() {
+        String first = refreshTokens.issue(user);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT token_hash FROM refresh_tokens WHERE user_id = ?", byte[].class, user.getId()))
+                .isEqualTo(RefreshTokenService.hash(first));
+
+        RefreshTokenService.Rotated second = refreshTokens.rotate(first);
+        assertThat(second.userId()).isEqualTo(user.getId());
+        assertThat(second.email()).isEqualTo(user.getEmail());
+        assertThat(second.refreshToken()).isNotEqualTo(first);
+
+        // A repeat within the grace period gets the same successor instead of revoking
+        assertThat(refreshTokens.rotate(first)).isEqualTo(second);
+        assertThat(refreshTokens.rotate(second.refreshToken()).refreshToken())
+                .isNotEqualTo(second.refreshToken());
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT family_id) FROM refresh_tokens WHERE user_id = ?", Integer.class, user.getId()))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String stolen = refreshTokens.issue(user);
+        String other = refreshTokens.issue(user);
+        String current = refreshTokens.rotate(stolen).refreshToken();
+        // Rotated on another node, so this one has no record of it
+        jdbcTemplate.update("UPDATE refresh_tokens SET rotated_at = ? WHERE token_hash = ?",
+                LocalDateTime.now(), RefreshTokenService.hash(current));
+
+        assertThatThrownBy(() -> refreshTokens.rotate(current)).isInstanceOf(AppException.class);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT bool_and(revoked) FROM refresh_tokens WHERE family_id = " +
+                "(SELECT family_id FROM refresh_tokens WHERE token_hash = ?)", Boolean.class,
+                RefreshTokenService.hash(current))).isTrue();
+        // Other sessions of the same user are untouched
+        assertThat(refreshTokens.rotate(other).userId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    void logoutEndsTheGracePeriodForTheOldToken() {
+        String first = refreshTokens.issue(user);
+        String second = refreshTokens.rotate(first).refreshToken();
+
+        refreshTokens.revoke(second);
+
+        assertThatThrownBy(() -> refreshTokens.rotate(first)).isInstanceOf(AppException.class);
+    }
+
+    @Test
+    void aFamilyRevokedOnAnotherNodeIsNotServedFromTheGraceCache() {
+        String first = refreshTokens.issue(user);
+        String second = refreshTokens.rotate(first).refreshToken();
+        jdbcTemplate.update("UPDATE refresh_tokens SET revoked = true WHERE family_id = " +
+                "(SELECT family_id FROM refresh_tokens WHERE token_hash = ?)", RefreshTokenService.hash(second));
+
+        assertThatThrownBy(() -> refreshTokens.rotate(first)).isInstanceOf(AppException.class);
+    }
+}
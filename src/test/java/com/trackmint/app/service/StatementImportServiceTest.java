@@ -0,0 +1,173 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.StatementImportDTO;
+import com.trackmint.app.entity.Budget;
+import com.trackmint.app.entity.User;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.repository.BudgetRepository;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementImportServiceTest extends EmbeddedPostgresTest {
+
+    private static final int ROWS = 50_000;
+
+    @Autowired
+    private StatementImportService statementImportService;
+
+    @Autowired
+    private BudgetRepository budgetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = saveUser("Import Test");
+
+        Budget budget = new Budget();
+        budget.setUser(user);
+        budget.setCategory("Groceries");
+        budget.setAmount(1_000_000.0);
+        budget.setMonth(1);
+        budget.setYear(2024);
+        budgetRepository.save(budget);
+    }
+
+    @Test
+    void importsLargeStatementAndSkipsRowsOnReimport() throws Exception {
+        MockMultipartFile file = statement();
+
+        StatementImportDTO first = awaitCompletion(statementImportService.startImport(user.getId(), file));
+
+        assertThat(first.getStatus()).isEqualTo("COMPLETED");
+        assertThat(first.getRowsRead()).isEqualTo(ROWS);
+        assertThat(first.getRowsRejected()).isEqualTo(2);
+        assertThat(first.getRejections()).hasSize(2).allMatch(message -> message.startsWith("Line "));
+        assertThat(first.getRowsImported()).isEqualTo(ROWS);
+        assertThat(first.getRowsPerSecond()).isPositive();
+        assertThat(count("SELECT count(DISTINCT id) FROM transactions WHERE user_id = ?")).isEqualTo(ROWS);
+        assertThat(count("SELECT count(*) FROM transactions WHERE user_id = ? AND description = 'Coffee, \"large\"'"))
+                .isEqualTo(1);
+
+        // Every even row is a 2.00 grocery expense dated in January 2024
+        awaitOutbox();
+        Double spent = jdbcTemplate.queryForObject(
+                "SELECT spent FROM budgets WHERE user_id = ?", Double.class, user.getId());
+        assertThat(spent).isEqualTo(ROWS / 2 * 2.0);
+
+        StatementImportDTO second = awaitCompletion(statementImportService.startImport(user.getId(), file));
+
+        assertThat(second.getRowsImported()).isZero();
+        assertThat(second.getRowsSkipped()).isEqualTo(ROWS);
+        assertThat(count("SELECT count(*) FROM transactions WHERE user_id = ?")).isEqualTo(ROWS);
+    }
+
+    @Test
+    void importedExpensesRaiseBudgetAlerts() throws Exception {
+        jdbcTemplate.update("UPDATE budgets SET amount = 100 WHERE user_id = ?", user.getId());
+        MockMultipartFile file = new MockMultipartFile("file", "small.csv", "text/csv",
+                ("Date,Description,Amount,Category\n" +
+                 "2024-01-03,Market,-40.00,Groceries\n" +
+                 "2024-01-09,Market,-45.00,Groceries\n" +
+                 "2024-01-20,Market,-30.00,Groceries\n").getBytes(StandardCharsets.UTF_8));
+
+        assertThat(awaitCompletion(statementImportService.startImport(user.getId(), file)).getRowsImported())
+                .isEqualTo(3);
+        awaitOutbox();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT spent FROM budgets WHERE user_id = ?", Double.class, user.getId())).isEqualTo(115.0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT alerted_threshold FROM budgets WHERE user_id = ?", Integer.class, user.getId())).isEqualTo(100);
+        assertThat(count("SELECT count(*) FROM notifications WHERE user_id = ? AND type = 'BUDGET_EXCEEDED'"))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failsWhenRequiredColumnIsMissing() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "bad.csv", "text/csv",
+                "when,description,amount\n2024-01-01,Coffee,-2.00\n".getBytes(StandardCharsets.UTF_8));
+
+        StatementImportDTO result = awaitCompletion(statementImportService.startImport(user.getId(), file));
+
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getError()).isEqualTo("Missing required column: date");
+        assertThat(count("SELECT count(*) FROM transactions WHERE user_id = ?")).isZero();
+    }
+
+    @Test
+    void progressIsReadFromTheSharedTable() throws Exception {
+        StatementImportDTO result = awaitCompletion(statementImportService.startImport(user.getId(), statement()));
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT rows_read FROM statement_imports WHERE id = ?", Long.class, result.getJobId()))
+                .isEqualTo(ROWS);
+        assertThatThrownBy(() -> statementImportService.getImport(createUser("Someone Else"), result.getJobId()))
+                .isInstanceOf(AppException.class);
+    }
+
+    @Test
+    void jobsOfAStoppedNodeAreReportedFailed() {
+        LocalDateTime stale = LocalDateTime.now().minusHours(1);
+        jdbcTemplate.update("INSERT INTO statement_imports (id, user_id, file_name, node, status, rows_read, " +
+                        "started_at, created_at, updated_at) VALUES ('lost-job', ?, 'gone.csv', 'other-node', " +
+                        "'RUNNING', 3000, ?, ?, ?)", user.getId(), stale, stale, stale);
+
+        StatementImportDTO result = statementImportService.getImport(user.getId(), "lost-job");
+
+        assertThat(result.getStatus()).isEqualTo("FAILED");
+        assertThat(result.getError()).isEqualTo(StatementImportService.LOST);
+        assertThat(result.getRowsRead()).isEqualTo(3000);
+        assertThat(result.getFinishedAt()).isNotNull();
+    }
+
+    private MockMultipartFile statement() {
+        StringBuilder csv = new StringBuilder("Date,Description,Amount,Category\r\n");
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < ROWS; i++) {
+            if (i == 0) {
+                csv.append("2024-01-01,\"Coffee, \"\"large\"\"\",-2.00,Groceries\r\n");
+            } else if (i % 2 == 0) {
+                csv.append(start.plusDays(i % 31)).append(",Shop ").append(i).append(",-2.00,Groceries\r\n");
+            } else {
+                csv.append(start.plusDays(i % 365)).append(",Salary ").append(i).append(",\"KES 1,500.00\",\r\n");
+            }
+            if (i == 10) {
+                csv.append("not a date,Broken,-1.00,Groceries\r\n");
+                csv.append("2024-01-02,No amount,,Groceries\r\n");
+            }
+        }
+        return new MockMultipartFile("file", "statement.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private StatementImportDTO awaitCompletion(StatementImportDTO started) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofMinutes(1).toNanos();
+        StatementImportDTO current = started;
+        while (current.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            current = statementImportService.getImport(user.getId(), started.getJobId());
+        }
+        return current;
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, user.getId());
+        return count == null ? 0 : count;
+    }
+}
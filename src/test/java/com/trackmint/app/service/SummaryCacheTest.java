@@ -0,0 +1,62 @@
+package com.trackmint.app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SummaryCacheTest {
+
+    private static final Long USER = 1L;
+
+    private final AtomicLong dataVersion = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private SummaryCache cache;
+
+    @BeforeEach
+    void createCache() {
+        UserDataVersionService dataVersions = mock(UserDataVersionService.class);
+        when(dataVersions.current(anyLong())).thenAnswer(invocation -> dataVersion.get());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SummaryCache(dataVersions, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void servesCachedSummaryUntilTheDataVersionMoves() {
+        assertThat(load()).isEqualTo(1);
+        assertThat(load()).isEqualTo(1);
+
+        dataVersion.incrementAndGet();
+
+        assertThat(load()).isEqualTo(2);
+        assertThat(cache.get(2L, SummaryCache.Summary.DASHBOARD, loads::incrementAndGet)).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "summaries").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "summaries").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void summaryLoadedDuringAWriteIsNotServedAfterIt() {
+        Integer loaded = cache.get(USER, SummaryCache.Summary.DASHBOARD, () -> {
+            dataVersion.incrementAndGet();
+            return loads.incrementAndGet();
+        });
+
+        assertThat(loaded).isEqualTo(1);
+        assertThat(load()).isEqualTo(2);
+        assertThat(load()).isEqualTo(2);
+    }
+
+    private Integer load() {
+        return cache.get(USER, SummaryCache.Summary.DASHBOARD, loads::incrementAndGet);
+    }
+}
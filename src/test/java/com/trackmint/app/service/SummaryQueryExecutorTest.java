@@ -0,0 +1,97 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.config.StatementCounter;
+import com.trackmint.app.dto.BudgetRequestDTO;
+import com.trackmint.app.dto.BudgetSummaryDTO;
+import com.trackmint.app.repository.UserRepository;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "app.summary-queries.parallel=true")
+class SummaryQueryExecutorTest extends EmbeddedPostgresTest {
+
+    // One read-only transaction per query: (sleep, backend pid, read-only flag)
+    private static final String PROBE =
+            "SELECT pg_sleep(0.4)::text, pg_backend_pid(), current_setting('transaction_read_only')";
+
+    @Autowired
+    private SummaryQueryExecutor summaryQueries;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void queriesRunSideBySideOnReadOnlyConnections() {
+        SummaryQueryExecutor.Fork fork = summaryQueries.fork();
+        List<Supplier<Object[]>> probes = List.of(
+                fork.submit(this::probe), fork.submit(this::probe), fork.submit(this::probe));
+
+        long started = System.nanoTime();
+        fork.join();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Serially the three sleeps alone take 1200 ms
+        assertThat(elapsedMillis).isLessThan(1000);
+        assertThat(probes).extracting(probe -> probe.get()[1]).doesNotHaveDuplicates();
+        assertThat(probes).extracting(probe -> probe.get()[2]).containsOnly("on");
+    }
+
+    @Test
+    void statementsOnTheQueryThreadsCountTowardTheCaller() {
+        Long userId = createUser("Statement Count");
+        SummaryQueryExecutor.Fork fork = summaryQueries.fork();
+        for (int i = 0; i < 3; i++) {
+            fork.submit(() -> userRepository.findDataVersion(userId));
+        }
+
+        StatementCounter.reset();
+        fork.join();
+
+        assertThat(StatementCounter.current()).isEqualTo(3);
+    }
+
+    @Test
+    void budgetSummaryIsTheSameInParallelMode() {
+        Long userId = createUser("Parallel Summary");
+        budgetService.createBudget(userId, budget("Food", 100.0, 120.0));
+        budgetService.createBudget(userId, budget("Transport", 100.0, 85.0));
+        budgetService.createBudget(userId, budget("Rent", 500.0, 100.0));
+
+        BudgetSummaryDTO summary = budgetService.getBudgetSummary(userId);
+
+        assertThat(summary.getTotalBudget()).isEqualTo(700.0);
+        assertThat(summary.getTotalSpent()).isEqualTo(305.0);
+        assertThat(summary.getBudgetCount()).isEqualTo(3L);
+        assertThat(summary.getOverBudgetCount()).isEqualTo(1L);
+        assertThat(summary.getOverBudget()).isEqualTo(20.0);
+        assertThat(summary.getAlerts())
+                .extracting(alert -> alert.getCategory() + ":" + alert.getType())
+                .containsExactlyInAnyOrder("Food:EXCEEDED", "Transport:WARNING");
+    }
+
+    private Object[] probe() {
+        return jdbcTemplate.queryForObject(PROBE,
+                (rs, row) -> new Object[]{rs.getString(1), rs.getInt(2), rs.getString(3)});
+    }
+
+    private BudgetRequestDTO budget(String category, double amount, double spent) {
+        BudgetRequestDTO dto = new BudgetRequestDTO();
+        dto.setCategory(category);
+        dto.setAmount(amount);
+        dto.setSpent(spent);
+        return dto;
+    }
+}
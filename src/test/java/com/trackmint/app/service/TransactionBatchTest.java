@@ -0,0 +1,168 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trackmint.app.dto.BudgetRequestDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.entity.Transaction;
+import com.trackmint.app.entity.User;
+import com.trackmint.app.security.JwtUtil;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class TransactionBatchTest extends EmbeddedPostgresTest {
+
+    private static final int ROWS = 1234;
+    private static final String ROLLUP =
+            "SELECT day, category, type, sum, count FROM user_daily_rollup " +
+            "WHERE user_id = ? AND count <> 0 ORDER BY 1, 2, 3";
+    private static final String DERIVED =
+            "SELECT CAST(date AS date) AS day, category, type, SUM(amount) AS sum, COUNT(*) AS count " +
+            "FROM transactions WHERE user_id = ? GROUP BY 1, 2, 3 ORDER BY 1, 2, 3";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long userId;
+    private String bearer;
+
+    @BeforeEach
+    void createUser() {
+        User user = saveUser("Batch Test");
+        userId = user.getId();
+        bearer = "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+
+        budget("Food", 3);
+        budget("Food", 4);
+        budget("Rent", 3);
+    }
+
+    @Test
+    void largeBatchesAreInsertedInChunksWithOneBudgetDeltaPerPeriod() throws Exception {
+        List<TransactionRequestDTO> rows = new ArrayList<>();
+        double foodMarch = 0;
+        double foodApril = 0;
+        double rentMarch = 0;
+        for (int i = 0; i < ROWS; i++) {
+            TransactionRequestDTO dto = new TransactionRequestDTO();
+            dto.setDescription("Row " + i);
+            dto.setCategory(i % 2 == 0 ? "Food" : "Rent");
+            dto.setType(i % 5 == 0 ? "INCOME" : "EXPENSE");
+            dto.setAmount(1.0 + i % 7);
+            dto.setDate(LocalDateTime.of(2026, 3, 1, 8, 0).plusHours(i));
+            rows.add(dto);
+            if ("EXPENSE".equals(dto.getType()) && dto.getDate().getMonthValue() == 3) {
+                if ("Food".equals(dto.getCategory())) foodMarch += dto.getAmount();
+                else rentMarch += dto.getAmount();
+            } else if ("EXPENSE".equals(dto.getType()) && "Food".equals(dto.getCategory())) {
+                foodApril += dto.getAmount();
+            }
+        }
+        // The rows span March and April: Food and Rent expenses in each month
+        int budgetDeltas = 4;
+
+        long sequenceBefore = lastSequenceValue();
+        double deliveredBefore = delivered();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        String body;
+        try {
+            body = mockMvc.perform(post("/api/transactions/batch")
+                            .header(HttpHeaders.AUTHORIZATION, bearer)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(Map.of("transactions", rows))))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+
+            assertThat(statistics.getEntityStatistics(Transaction.class.getName()).getInsertCount())
+                    .isEqualTo(ROWS);
+            // Flushed after every 500 rows and once at the end, at least
+            assertThat(statistics.getFlushCount()).isGreaterThanOrEqualTo(3);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        // Ids come from pooled blocks of 50, one nextval per block
+        long sequenceAfter = lastSequenceValue();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode row : objectMapper.readTree(body)) {
+            ids.add(row.get("id").asLong());
+        }
+        assertThat(ids).hasSize(ROWS).doesNotHaveDuplicates()
+                .allMatch(id -> id > sequenceBefore - 50 && id <= sequenceAfter);
+        assertThat((sequenceAfter - sequenceBefore) / 50).isLessThanOrEqualTo((ROWS + 49) / 50);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM transactions WHERE user_id = ?", Long.class, userId)).isEqualTo(ROWS);
+
+        assertThat(jdbcTemplate.queryForList(ROLLUP, userId))
+                .isEqualTo(jdbcTemplate.queryForList(DERIVED, userId));
+
+        awaitOutbox();
+        assertThat(delivered() - deliveredBefore).isEqualTo(budgetDeltas);
+        assertThat(spent("Food", 3)).isEqualTo(foodMarch);
+        assertThat(spent("Food", 4)).isEqualTo(foodApril);
+        assertThat(spent("Rent", 3)).isEqualTo(rentMarch);
+    }
+
+    private void budget(String category, int month) {
+        BudgetRequestDTO budget = new BudgetRequestDTO();
+        budget.setCategory(category);
+        budget.setAmount(100_000.0);
+        budget.setMonth(month);
+        budget.setYear(2026);
+        budgetService.createBudget(userId, budget);
+    }
+
+    private long lastSequenceValue() {
+        return jdbcTemplate.queryForObject("SELECT last_value FROM transactions_seq", Long.class);
+    }
+
+    private double delivered() {
+        return meterRegistry.counter("trackmint.outbox.delivered", "type", BudgetSpentConsumer.TYPE).count();
+    }
+
+    private double spent(String category, int month) {
+        return jdbcTemplate.queryForObject(
+                "SELECT spent FROM budgets WHERE user_id = ? AND category = ? AND month = ? AND year = 2026",
+                Double.class, userId, category, month);
+    }
+}
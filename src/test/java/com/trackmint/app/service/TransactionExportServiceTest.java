@@ -0,0 +1,109 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionExportServiceTest extends EmbeddedPostgresTest {
+
+    private static final int ROWS = 200_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private TransactionExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        userId = createUser("Export Test");
+
+        // Written straight to the table, so neither the rollup nor the persistence context sees them
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, description, category, amount, type, date) " +
+                "SELECT nextval('transactions_seq'), ?, 'Weekly shop #' || i || ' ' || repeat('x', 200), " +
+                "'Groceries', i + 0.5, 'EXPENSE', TIMESTAMP '2024-01-01' + i * INTERVAL '1 minute' " +
+                "FROM generate_series(1, ?) i", userId, ROWS);
+    }
+
+    @Test
+    void largeExportsStreamFromTheCursorInBoundedHeap() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        SamplingOutputStream ndjson = new SamplingOutputStream(memory);
+
+        long count = exportService.exportTransactions(userId, TransactionExportService.NDJSON, ndjson);
+
+        // Every row, newest first; loading them all at once would need well over 100 MB
+        assertThat(count).isEqualTo(ROWS);
+        assertThat(ndjson.lines).isEqualTo(ROWS);
+        assertThat(ndjson.firstLine).contains("\"description\":\"Weekly shop #" + ROWS + " ");
+        assertThat(ndjson.bytes).isGreaterThan(ROWS * 250L);
+        assertThat(ndjson.peakGrowth).isLessThan(MAX_HEAP_GROWTH);
+
+        SamplingOutputStream csv = new SamplingOutputStream(memory);
+        assertThat(exportService.exportTransactions(userId, TransactionExportService.CSV, csv)).isEqualTo(ROWS);
+        // Header plus one line per row
+        assertThat(csv.lines).isEqualTo(ROWS + 1);
+        assertThat(csv.peakGrowth).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    // Counts what is written and samples the live heap every 8 MB of output
+    private static class SamplingOutputStream extends OutputStream {
+        private static final long SAMPLE_EVERY = 8L * 1024 * 1024;
+
+        private final MemoryMXBean memory;
+        private final long baseline;
+        private final StringBuilder first = new StringBuilder();
+        long bytes;
+        long lines;
+        long peakGrowth;
+        String firstLine;
+        private long nextSample = SAMPLE_EVERY;
+
+        SamplingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+            this.baseline = usedHeapAfterGc(memory);
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                    if (firstLine == null) {
+                        firstLine = new String(b, off, i - off, StandardCharsets.UTF_8);
+                        firstLine = first + firstLine;
+                    }
+                }
+            }
+            if (firstLine == null) {
+                first.append(new String(b, off, len, StandardCharsets.UTF_8));
+            }
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peakGrowth = Math.max(peakGrowth, usedHeapAfterGc(memory) - baseline);
+            }
+        }
+
+        private static long usedHeapAfterGc(MemoryMXBean memory) {
+            System.gc();
+            return memory.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
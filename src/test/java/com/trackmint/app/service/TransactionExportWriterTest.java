@@ -0,0 +1,111 @@
+package com.trackmint.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.trackmint.app.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionExportWriterTest {
+
+    private static final int ROWS = 300_000;
+    private static final long MAX_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    private final TransactionExportWriter writer = new TransactionExportWriter(new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    @Test
+    void ndjsonWritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = writer.writeNdjson(rows(3), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(count).isEqualTo(3);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).startsWith("{\"id\":1,").contains("\"date\":\"2024-01-01T00:01:00\"");
+        assertThat(lines[3]).isEmpty();
+    }
+
+    @Test
+    void csvEscapesFieldsAndDefusesFormulas() throws Exception {
+        Transaction transaction = transaction(7);
+        transaction.setDescription("Lunch, \"the usual\"");
+        transaction.setCategory("=HYPERLINK(\"x\")");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.writeCsv(Stream.of(transaction), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,date,type,category,description,amount\n" +
+                "7,2024-01-01T00:07,EXPENSE,\"'=HYPERLINK(\"\"x\"\")\",\"Lunch, \"\"the usual\"\"\",7.5\n");
+    }
+
+    @Test
+    void largeExportsRunInConstantHeap() throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedHeapAfterGc(memory);
+        long[] peakGrowth = {0};
+
+        // Sample the live heap every 50k rows while the export is running
+        Stream<Transaction> rows = rows(ROWS).peek(row -> {
+            if (row.getId() % 50_000 == 0) {
+                peakGrowth[0] = Math.max(peakGrowth[0], usedHeapAfterGc(memory) - baseline);
+            }
+        });
+        CountingOutputStream ndjson = new CountingOutputStream();
+        CountingOutputStream csv = new CountingOutputStream();
+
+        assertThat(writer.writeNdjson(rows, ndjson)).isEqualTo(ROWS);
+        assertThat(writer.writeCsv(rows(ROWS), csv)).isEqualTo(ROWS);
+
+        // Holding the rows would need well over 100 MB; the writer keeps none of them
+        assertThat(ndjson.bytes).isGreaterThan(ROWS * 200L);
+        assertThat(csv.bytes).isGreaterThan(ROWS * 100L);
+        assertThat(peakGrowth[0]).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static Stream<Transaction> rows(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(TransactionExportWriterTest::transaction);
+    }
+
+    private static Transaction transaction(long id) {
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        transaction.setType("EXPENSE");
+        transaction.setCategory("Groceries");
+        transaction.setDescription("Weekly shop #" + id + " " + "x".repeat(100));
+        transaction.setAmount(id + 0.5);
+        return transaction;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.TransactionPageDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.dto.TransactionResponseDTO;
+import com.trackmint.app.exception.AppException;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionPaginationTest extends EmbeddedPostgresTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 6, 1, 9, 0);
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Long userId;
+    private List<TransactionResponseDTO> added;
+
+    @BeforeEach
+    void seed() {
+        userId = createUser("Pagination Test");
+
+        // Groups of rows sharing one timestamp, so page boundaries fall inside them
+        List<TransactionRequestDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            batch.add(request("Row " + i, i % 2 == 0 ? "Food" : "Rent", i % 3 == 0 ? "INCOME" : "EXPENSE",
+                    DAY.plusHours(i / 4)));
+        }
+        added = transactionService.addTransactions(userId, batch);
+    }
+
+    @Test
+    void pagesWalkTheHistoryNewestFirstWithoutGapsOrRepeats() {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = transactionService.getAllTransactions(userId, cursor, 5);
+            pages++;
+            assertThat(page.getTransactions()).hasSizeLessThanOrEqualTo(5);
+            page.getTransactions().forEach(row -> walked.add(row.getId()));
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(5);
+        assertThat(walked).containsExactlyElementsOf(added.stream()
+                .sorted(Comparator.comparing(TransactionResponseDTO::getDate)
+                        .thenComparing(TransactionResponseDTO::getId).reversed())
+                .map(TransactionResponseDTO::getId)
+                .toList());
+    }
+
+    @Test
+    void anExactlyFullLastPageHasNoNextCursor() {
+        TransactionPageDTO first = transactionService.getAllTransactions(userId, null, 20);
+        assertThat(first.isHasMore()).isTrue();
+
+        TransactionPageDTO last = transactionService.getAllTransactions(userId, first.getNextCursor(), 3);
+
+        assertThat(last.getTransactions()).hasSize(3);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void filteredPagesStartWithoutACursorAndContinueFromOne() {
+        TransactionPageDTO first = transactionService.getTransactionsByCategory(userId, "Food", null, 4);
+        TransactionPageDTO rest = transactionService.getTransactionsByCategory(userId, "Food", first.getNextCursor(), 50);
+        assertThat(first.getTransactions()).hasSize(4);
+        assertThat(rest.getTransactions()).hasSize(8).allMatch(row -> "Food".equals(row.getCategory()));
+        assertThat(rest.getNextCursor()).isNull();
+
+        TransactionPageDTO income = transactionService.getTransactionsByType(userId, "income", null, 50);
+        assertThat(income.getTransactions()).hasSize(8).allMatch(row -> "INCOME".equals(row.getType()));
+
+        TransactionPageDTO range = transactionService.getTransactionsByDateRange(
+                userId, DAY.plusHours(1), DAY.plusHours(2), null, 50);
+        assertThat(range.getTransactions()).hasSize(8);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String notBase64 = "not a cursor!";
+        String noSeparator = encode("2026-06-01T09:00");
+        String badDate = encode("yesterday|42");
+        String badId = encode("2026-06-01T09:00|forty-two");
+
+        for (String cursor : List.of(notBase64, noSeparator, badDate, badId)) {
+            assertThatThrownBy(() -> transactionService.getAllTransactions(userId, cursor, 5))
+                    .isInstanceOfSatisfying(AppException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TransactionRequestDTO request(String description, String category, String type,
+                                                 LocalDateTime date) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription(description);
+        dto.setCategory(category);
+        dto.setAmount(10.0);
+        dto.setType(type);
+        dto.setDate(date);
+        return dto;
+    }
+}
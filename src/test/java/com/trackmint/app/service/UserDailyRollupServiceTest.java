@@ -0,0 +1,157 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.CategoryRequestDTO;
+import com.trackmint.app.dto.CategorySummaryDTO;
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDailyRollupServiceTest extends EmbeddedPostgresTest {
+
+    // Non-empty buckets, in the same shape as the rollup derived from the raw rows
+    private static final String ROLLUP =
+            "SELECT day, category, type, sum, count FROM user_daily_rollup " +
+            "WHERE user_id = ? AND count <> 0 ORDER BY 1, 2, 3";
+    private static final String DERIVED =
+            "SELECT CAST(date AS date) AS day, category, type, SUM(amount) AS sum, COUNT(*) AS count " +
+            "FROM transactions WHERE user_id = ? GROUP BY 1, 2, 3 ORDER BY 1, 2, 3";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserDailyRollupService rollupService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = createUser("Rollup Test");
+    }
+
+    @Test
+    void rollupFollowsInsertsUpdatesAndDeletes() {
+        LocalDateTime day = LocalDateTime.of(2026, 3, 10, 9, 0);
+        Long rent = transactionService.addTransaction(userId,
+                request("Rent", "Housing", 400.0, "EXPENSE", day)).getId();
+        Long lunch = transactionService.addTransaction(userId,
+                request("Lunch", "Food", 12.5, "EXPENSE", day.plusHours(3))).getId();
+        transactionService.addTransaction(userId,
+                request("Salary", "Income", 1000.0, "INCOME", day.plusDays(1)));
+
+        List<TransactionRequestDTO> batch = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            batch.add(request("Coffee " + i, "Food", 2.0, "EXPENSE", day.minusDays(i % 9)));
+        }
+        transactionService.addTransactions(userId, batch);
+
+        // Amount change within a bucket, then a move to another day and category
+        transactionService.updateTransaction(userId, lunch,
+                request(null, null, 15.0, null, null));
+        transactionService.updateTransaction(userId, lunch,
+                request(null, "Eating out", null, null, day.plusDays(2)));
+        transactionService.deleteTransaction(userId, rent);
+
+        assertThat(jdbcTemplate.queryForList(ROLLUP, userId))
+                .isEqualTo(jdbcTemplate.queryForList(DERIVED, userId));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count FROM user_daily_rollup WHERE user_id = ? AND category = 'Housing'",
+                Long.class, userId)).isZero();
+    }
+
+    @Test
+    void rebuildRepairsDrift() {
+        LocalDateTime day = LocalDateTime.of(2026, 4, 1, 12, 0);
+        transactionService.addTransaction(userId, request("Bus", "Transport", 3.0, "EXPENSE", day));
+        // Written behind the service's back, so the rollup misses it
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, description, category, amount, type, date) " +
+                "VALUES (nextval('transactions_seq'), ?, 'Train', 'Transport', 7.0, 'EXPENSE', ?)", userId, day);
+
+        rollupService.rebuild(userId);
+
+        List<Map<String, Object>> rollup = jdbcTemplate.queryForList(ROLLUP, userId);
+        assertThat(rollup).isEqualTo(jdbcTemplate.queryForList(DERIVED, userId));
+        assertThat(rollup).singleElement()
+                .satisfies(row -> assertThat(row).containsEntry("sum", 10.0).containsEntry("count", 2L));
+    }
+
+    @Test
+    void rebuildAllWalksEveryUser() {
+        LocalDateTime day = LocalDateTime.of(2026, 4, 2, 12, 0);
+        jdbcTemplate.update("INSERT INTO transactions (id, user_id, description, category, amount, type, date) " +
+                "VALUES (nextval('transactions_seq'), ?, 'Ferry', 'Transport', 9.0, 'EXPENSE', ?)", userId, day);
+
+        rollupService.rebuildAll();
+
+        assertThat(jdbcTemplate.queryForList(ROLLUP, userId))
+                .isEqualTo(jdbcTemplate.queryForList(DERIVED, userId))
+                .hasSize(1);
+    }
+
+    @Test
+    void rebuildDoesNotDoubleCountConcurrentWrites() {
+        LocalDateTime day = LocalDateTime.of(2026, 5, 1, 8, 0);
+        transactionService.addTransaction(userId, request("Seed", "Food", 1.0, "EXPENSE", day));
+
+        // Every write opens a new bucket, the case a rebuild used to count twice
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 1; i <= 60; i++) {
+                transactionService.addTransaction(userId,
+                        request("Write " + i, "Category " + i, 1.0, "EXPENSE", day.plusDays(i)));
+            }
+        });
+        while (!writer.isDone()) {
+            rollupService.rebuild(userId);
+        }
+        writer.join();
+
+        assertThat(jdbcTemplate.queryForList(ROLLUP, userId))
+                .isEqualTo(jdbcTemplate.queryForList(DERIVED, userId));
+    }
+
+    @Test
+    void categorySummaryCountsOnlyExpenses() {
+        CategoryRequestDTO category = new CategoryRequestDTO();
+        category.setName("Freelance");
+        categoryService.createCategory(userId, category);
+        LocalDateTime day = LocalDateTime.of(2026, 6, 1, 10, 0);
+        transactionService.addTransaction(userId, request("Laptop", "Freelance", 900.0, "EXPENSE", day));
+        transactionService.addTransaction(userId, request("Software", "Freelance", 100.0, "EXPENSE", day));
+        transactionService.addTransaction(userId, request("Invoice", "Freelance", 2500.0, "INCOME", day));
+
+        CategorySummaryDTO summary = categoryService.getCategorySummary(userId);
+
+        assertThat(summary.getCategories()).singleElement().satisfies(dto -> {
+            assertThat(dto.getTotalSpent()).isEqualTo(1000.0);
+            assertThat(dto.getTransactionCount()).isEqualTo(2L);
+        });
+        assertThat(summary.getTotalSpent()).isEqualTo(1000.0);
+    }
+
+    private TransactionRequestDTO request(String description, String category, Double amount,
+                                          String type, LocalDateTime date) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription(description);
+        dto.setCategory(category);
+        dto.setAmount(amount);
+        dto.setType(type);
+        dto.setDate(date);
+        return dto;
+    }
+}
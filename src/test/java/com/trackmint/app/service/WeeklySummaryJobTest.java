@@ -0,0 +1,73 @@
+package com.trackmint.app.service;
+
+import com.trackmint.app.dto.TransactionRequestDTO;
+import com.trackmint.app.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklySummaryJobTest extends EmbeddedPostgresTest {
+
+    // A week no other test writes to
+    private static final LocalDate WEEK = LocalDate.of(2019, 3, 4);
+
+    @Autowired
+    private WeeklySummaryJob weeklySummaryJob;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserDataVersionService dataVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyActiveUserGetsOneSummaryForTheWeek() {
+        Long saver = createUser("Weekly Saver");
+        transactionService.addTransaction(saver, transaction("INCOME", 1000.0, WEEK.atTime(9, 0)));
+        transactionService.addTransaction(saver, transaction("EXPENSE", 250.5, WEEK.plusDays(6).atTime(22, 0)));
+        // Outside the week on both sides
+        transactionService.addTransaction(saver, transaction("EXPENSE", 99.0, WEEK.minusDays(1).atTime(12, 0)));
+        transactionService.addTransaction(saver, transaction("EXPENSE", 99.0, WEEK.plusDays(7).atTime(0, 0)));
+        Long spender = createUser("Weekly Spender");
+        transactionService.addTransaction(spender, transaction("EXPENSE", 40.0, WEEK.plusDays(2).atTime(13, 0)));
+        Long idle = createUser("Weekly Idle");
+        long version = dataVersions.current(saver);
+
+        assertThat(weeklySummaryJob.run(WEEK)).isGreaterThanOrEqualTo(2);
+
+        assertThat(summaries(saver))
+                .containsExactly("This week: ksh 1000.00 earned, ksh 250.50 spent, ksh 749.50 saved");
+        assertThat(summaries(spender))
+                .containsExactly("This week: ksh 0.00 earned, ksh 40.00 spent, ksh -40.00 saved");
+        assertThat(summaries(idle)).isEmpty();
+        assertThat(dataVersions.current(saver)).isGreaterThan(version);
+
+        // A rerun for the same week only picks up users not summarized yet
+        assertThat(weeklySummaryJob.run(WEEK)).isZero();
+        assertThat(summaries(saver)).hasSize(1);
+    }
+
+    private List<String> summaries(Long userId) {
+        return jdbcTemplate.queryForList(
+                "SELECT message FROM notifications WHERE user_id = ? AND type = 'WEEKLY_SUMMARY'",
+                String.class, userId);
+    }
+
+    private TransactionRequestDTO transaction(String type, double amount, LocalDateTime date) {
+        TransactionRequestDTO dto = new TransactionRequestDTO();
+        dto.setDescription(type.toLowerCase());
+        dto.setCategory("General");
+        dto.setAmount(amount);
+        dto.setType(type);
+        dto.setDate(date);
+        return dto;
+    }
+}
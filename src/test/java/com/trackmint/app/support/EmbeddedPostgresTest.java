@@ -0,0 +1,79 @@
+package com.trackmint.app.support;
+
+import com.trackmint.app.entity.User;
+import com.trackmint.app.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+// Base class for tests that need a real PostgreSQL. One embedded server is started per
+// test JVM; Flyway and Hibernate build the schema as they would in production. Emails go
+// to the in-process ResendStub.
+@SpringBootTest
+public abstract class EmbeddedPostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @Autowired
+    private JdbcTemplate postgres;
+
+    @Autowired
+    private UserRepository users;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("resend.api.key", () -> "re_test");
+        registry.add("resend.base-url", ResendStub::url);
+    }
+
+    // A new user with a unique email; returns its id
+    protected Long createUser(String name) {
+        return saveUser(name).getId();
+    }
+
+    protected User saveUser(String name) {
+        return saveUser(name, "secret");
+    }
+
+    protected User saveUser(String name, String password) {
+        User user = new User();
+        user.setFullName(name);
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword(password);
+        return users.save(user);
+    }
+
+    // Waits until the outbox dispatcher has applied every event written so far
+    protected void awaitOutbox() {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (postgres.queryForObject("SELECT count(*) FROM outbox_events", Long.class) > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Outbox events were not delivered in time");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting for the outbox", e);
+            }
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.trackmint.app.support;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stands in for the Resend API in tests. Every POST to /emails is recorded; the next
+// failNext requests are answered with 503 instead of being accepted.
+public final class ResendStub {
+
+    public record Request(int status, String authorization, String body) { }
+
+    private static final List<Request> REQUESTS = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger FAILURES = new AtomicInteger();
+    private static final HttpServer SERVER = start();
+
+    private ResendStub() {
+    }
+
+    public static String url() {
+        return "http://localhost:" + SERVER.getAddress().getPort();
+    }
+
+    public static void failNext(int count) {
+        FAILURES.set(count);
+    }
+
+    public static List<Request> requests() {
+        return List.copyOf(REQUESTS);
+    }
+
+    private static HttpServer start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/emails", exchange -> {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                int status = FAILURES.getAndUpdate(left -> Math.max(0, left - 1)) > 0 ? 503 : 200;
+                REQUESTS.add(new Request(status,
+                        exchange.getRequestHeaders().getFirst("Authorization"), body));
+                byte[] response = (status == 200 ? "{\"id\":\"stub\"}" : "{}").getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(status, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            });
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}